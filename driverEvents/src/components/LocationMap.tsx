@@ -1,5 +1,5 @@
 import React, { useEffect, useState, useRef, useCallback } from "react";
-import { locationService, LocationUpdate } from "../services/locationService";
+import { locationService, LocationUpdate, FramePosition } from "../services/locationService";
 import {MapContainer, TileLayer, Marker, Popup, useMap} from "react-leaflet";
 import "leaflet/dist/leaflet.css";
 import L from "leaflet";
@@ -54,9 +54,14 @@ const AutoCenter: React.FC<AutoCenterProps> = ({ selectedDrivers, locations }) =
     return null;
 };
 
-const LocationMap: React.FC = () => {
+interface LocationMapProps {
+    // Booking view: only this driver is listed and watched
+    driverEmail?: string;
+}
+
+const LocationMap: React.FC<LocationMapProps> = ({ driverEmail }) => {
     const [drivers, setDrivers] = useState<Driver[]>([]);
-    const [selectedDrivers, setSelectedDrivers] = useState<string[]>([]);
+    const [selectedDrivers, setSelectedDrivers] = useState<string[]>(driverEmail ? [driverEmail] : []);
     const [locations, setLocations] = useState<Record<string, LocationUpdate>>({});
 
     // Track if we've connected to WebSocket (only connect ONCE)
@@ -71,7 +76,9 @@ const LocationMap: React.FC = () => {
             .then((data) => {
                 if (isMounted) {
                     // console.log('✅ Drivers loaded:', data.length, 'drivers');
-                    setDrivers(data);
+                    setDrivers(driverEmail
+                        ? data.filter((d: Driver) => d.email === driverEmail)
+                        : data);
                 }
             })
             .catch((err) => {
@@ -100,7 +107,7 @@ const LocationMap: React.FC = () => {
         });
     }, []);
 
-    // Connect to WebSocket ONCE and subscribe to all drivers
+    // Connect to WebSocket ONCE: one driver's topic on a booking, the aggregated frames for all drivers
     useEffect(() => {
         if (drivers.length === 0 || isInitializedRef.current) {
             return;
@@ -111,21 +118,41 @@ const LocationMap: React.FC = () => {
         // Connect ONCE
         locationService.connect();
 
-        const registeredDrivers: string[] = [];
-        drivers.forEach((driver) => {
-            locationService.registerCallback(
-                driver.email,
-                (update: LocationUpdate) => handleLocationUpdate(driver.email, update)
+        let stopWatching: Array<() => void>;
+        if (driverEmail) {
+            stopWatching = drivers.map((driver) =>
+                locationService.watchDriver(
+                    driver.id,
+                    (update: LocationUpdate) => handleLocationUpdate(driver.email, update)
+                )
             );
-            registeredDrivers.push(driver.email);
-        });
+        } else {
+            const emailsById = new Map(drivers.map((d) => [String(d.id), d.email]));
+            stopWatching = [locationService.watchFrames((positions: FramePosition[], keyFrame: boolean,
+                                                         removed: number[]) => {
+                // one state update per frame, however many drivers moved
+                setLocations((prev) => {
+                    const next: Record<string, LocationUpdate> = keyFrame ? {} : { ...prev };
+                    removed.forEach((driverId) => {
+                        const email = emailsById.get(String(driverId));
+                        if (email) {
+                            delete next[email];
+                        }
+                    });
+                    positions.forEach((p) => {
+                        const email = emailsById.get(String(p.driverId));
+                        if (email) {
+                            next[email] = { ...p, email };
+                        }
+                    });
+                    return next;
+                });
+            })];
+        }
 
-        // console.log(`✅ Registered callbacks for ${drivers.length} drivers`);
         // Cleanup on unmount
         return () => {
-            registeredDrivers.forEach((email) => {
-                locationService.unregisterCallback(email);
-            });
+            stopWatching.forEach((stop) => stop());
             locationService.disconnect();
             isInitializedRef.current = false;
         };
@@ -0,0 +1,42 @@
+package com.example.driverevents.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches for reference data (drivers, vehicles, destinations) that is read on every location point
+ * and booking load but changes only a few times a day.
+ * <p>
+ * Caffeine size, TTL and statistics come from {@code spring.cache.*} in application.properties; hit and
+ * miss counts are published as {@code cache.gets} on the actuator metrics endpoint. Repositories evict
+ * the whole cache on any write of their entity. The caching annotations go through a transaction-aware
+ * view of Boot's cache manager, so inside a transaction the eviction happens after commit and a
+ * concurrent reader cannot cache the old row again in between.
+ * <p>
+ * Caches hold immutable snapshots or ids (see ReferenceDataLookupService), never entities, because cached values are
+ * shared between threads and transactions.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String DRIVERS_BY_EMAIL = "driversByEmail";
+    public static final String DRIVERS_BY_NAME = "driversByName";
+    public static final String DESTINATIONS = "destinations";
+
+    // Boot's auto-configured Caffeine manager; looked up lazily, it is created after this configuration
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public CacheConfig(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public CacheManager cacheManager() {
+        return new TransactionAwareCacheManagerProxy(cacheManager.getObject());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.driverevents.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences past ids that were handed out by the old IDENTITY columns (or by
+ * raw SQL inserts), so the first allocated block cannot collide with existing rows.
+ * <p>
+ * Hibernate's pooled optimizer treats a sequence value {@code v} as the block {@code (v - 50, v]},
+ * so the sequence only needs to be at least {@code max(id)}.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+    // table -> sequence
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "bookings", "bookings_seq",
+            "drivers_locations", "drivers_locations_seq",
+            "location_updates", "location_updates_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void align() {
+        SEQUENCES.forEach((table, sequence) -> {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+                Long current = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+                if (maxId != null && (current == null || current < maxId)) {
+                    jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?, true)", Long.class, maxId);
+                    log.info("Moved {} from {} to {}", sequence, current, maxId);
+                }
+            } catch (Exception e) {
+                log.error("Could not align {} with {}: {}", sequence, table, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.driverevents.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out replica connections inside read-only service transactions and primary connections
+ * everywhere else.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * connection is only fetched after the transaction's read-only flag is known. Read-only transactions
+ * that Spring Data opens around its own CRUD methods ({@code findById}, {@code findAll}, ...) stay on
+ * the primary: they are usually the read half of a read-modify-write and must not see replica lag.
+ * <p>
+ * When the replica cannot be reached, reads fall back to the primary and the replica is skipped for
+ * {@link #RETRY_AFTER_SECONDS}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    static final long RETRY_AFTER_SECONDS = 30;
+
+    private static final String REPOSITORY_TRANSACTION_PREFIX = SimpleJpaRepository.class.getName() + '.';
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    private volatile long replicaDownUntil = System.nanoTime();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null
+                && !name.startsWith(REPOSITORY_TRANSACTION_PREFIX)
+                && System.nanoTime() - replicaDownUntil >= 0;
+    }
+
+    private void replicaUnavailable(SQLException e) {
+        replicaDownUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(RETRY_AFTER_SECONDS);
+        log.warn("Read replica unavailable, using primary for {}s: {}", RETRY_AFTER_SECONDS, e.getMessage());
+    }
+}
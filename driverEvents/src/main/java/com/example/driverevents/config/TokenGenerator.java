@@ -2,6 +2,9 @@ package com.example.driverevents.config;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 
 public class TokenGenerator {
 
@@ -17,6 +20,21 @@ public class TokenGenerator {
         return bytesToHex(randomBytes);
     }
 
+    /**
+     * Generates tokens for a bulk import, drawing the random bytes for all of them in one call
+     * @return {@code count} 64-character hexadecimal tokens
+     */
+    public static List<String> generateTokens(int count) {
+        byte[] randomBytes = new byte[count * 32];
+        secureRandom.nextBytes(randomBytes);
+        HexFormat hex = HexFormat.of();
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(hex.formatHex(randomBytes, i * 32, (i + 1) * 32));
+        }
+        return tokens;
+    }
+
     /**
      * Converts byte array to hexadecimal string
      */
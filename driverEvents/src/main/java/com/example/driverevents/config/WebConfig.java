@@ -1,6 +1,8 @@
 package com.example.driverevents.config;
 
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,6 +39,13 @@ public class WebConfig implements WebMvcConfigurer {
         return builder -> builder.featuresToEnable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
     }
 
+    // Replaces reflective getter/constructor calls with generated lambdas; responses are records
+    // serialized on every poll, so the per-property cost adds up
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.connectTimeout(Duration.ofMillis(timeout)).readTimeout(Duration.ofMillis(timeout)).build();
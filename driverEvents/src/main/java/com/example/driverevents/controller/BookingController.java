@@ -1,24 +1,47 @@
 package com.example.driverevents.controller;
 
 import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingFilter;
+import com.example.driverevents.model.BookingResponse;
+import com.example.driverevents.model.BookingSort;
+import com.example.driverevents.model.BookingSummary;
+import com.example.driverevents.model.BookingTrack;
+import com.example.driverevents.model.CursorPage;
+import com.example.driverevents.model.ExportFormat;
 import com.example.driverevents.model.ExternalBookingDTO;
+import com.example.driverevents.model.ImportJobStatus;
+import com.example.driverevents.model.PurgeChunk;
+import com.example.driverevents.model.PurgeResult;
 import com.example.driverevents.repository.BookingRepository;
+import com.example.driverevents.service.BookingExportService;
 import com.example.driverevents.service.BookingService;
+import com.example.driverevents.service.BookingTrackService;
 import com.example.driverevents.service.BookingsSyncService;
 import com.example.driverevents.service.ExternalApiService;
-import com.example.driverevents.service.FileProcessingService;
+import com.example.driverevents.service.ImportJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -28,40 +51,132 @@ import java.util.Arrays;
 public class BookingController {
 
     private final BookingService bookingService;
-    private final FileProcessingService fileProcessingService;
+    private final BookingTrackService bookingTrackService;
+    private final BookingExportService bookingExportService;
+    private final ImportJobService importJobService;
     private final BookingsSyncService bookingSyncService;
     private final BookingRepository bookingRepository;
     private final ExternalApiService externalApiService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-//        log.info("Fetching all bookings");
-        List<Booking> bookings = bookingService.getAllBookings();
-//        log.info("Retrieved {} bookings", bookings.size());
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<CursorPage<BookingSummary>> getBookings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Booking.BookingStatus status,
+            @RequestParam(required = false) Long driverId,
+            @RequestParam(required = false) Boolean synced,
+            @RequestParam(defaultValue = "startAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<BookingSummary> page = bookingService.getBookings(toFilter(from, to, status, driverId, synced),
+                BookingSort.fromParameter(sort), isDescending(direction), cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Same filters as {@link #getBookings}, but writes every match as newline-delimited JSON while it is
+     * read from the database cursor, so the response size does not affect server memory.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBookings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Booking.BookingStatus status,
+            @RequestParam(required = false) Long driverId,
+            @RequestParam(required = false) Boolean synced,
+            @RequestParam(defaultValue = "startAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
+        BookingFilter filter = toFilter(from, to, status, driverId, synced);
+        BookingSort bookingSort = BookingSort.fromParameter(sort);
+        boolean descending = isDescending(direction);
+
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = objectMapper.writerFor(BookingSummary.class);
+            bookingService.streamBookings(filter, bookingSort, descending, booking -> {
+                try {
+                    out.write(writer.writeValueAsBytes(booking));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Same filters as {@link #getBookings}, as a CSV or .xlsx download written while the rows are read from
+     * the database cursor. The first columns follow the upload layout, so the file can be imported again.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Booking.BookingStatus status,
+            @RequestParam(required = false) Long driverId,
+            @RequestParam(required = false) Boolean synced,
+            @RequestParam(defaultValue = "startAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "csv") String format) {
+        BookingFilter filter = toFilter(from, to, status, driverId, synced);
+        BookingSort bookingSort = BookingSort.fromParameter(sort);
+        boolean descending = isDescending(direction);
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+
+        StreamingResponseBody body = out ->
+                bookingExportService.exportBookings(filter, bookingSort, descending, exportFormat, out);
+        return attachment(body, exportFormat, "bookings-" + LocalDate.now(Booking.BOOKING_ZONE));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getBooking(@PathVariable Long id) {
+    public ResponseEntity<BookingResponse> getBooking(@PathVariable Long id) {
 //        log.info("Fetching booking with id: {}", id);
         Booking booking = bookingService.getBookingById(id);
-        return ResponseEntity.ok(booking);
+        return ResponseEntity.ok(BookingResponse.from(booking));
+    }
+
+    /**
+     * Recorded path of the booking, downsampled on the server to at most {@code maxPoints} points.
+     */
+    @GetMapping("/{id}/track")
+    public ResponseEntity<BookingTrack> getBookingTrack(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "500") int maxPoints) {
+        return ResponseEntity.ok(bookingTrackService.getTrack(id, maxPoints));
+    }
+
+    /**
+     * Every recorded point of the booking (not downsampled), archived ones included, as CSV or .xlsx.
+     */
+    @GetMapping("/{id}/track/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingTrack(@PathVariable Long id,
+                                                                    @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        // resolved before the response starts, so an unknown booking is still a 404
+        Booking booking = bookingService.getBookingById(id);
+
+        StreamingResponseBody body = out -> bookingExportService.exportTrack(id, exportFormat, out);
+        return attachment(body, exportFormat, "track-" + booking.getBookingNumber().replaceAll("[^A-Za-z0-9._-]", "_"));
     }
 
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@Valid @RequestBody Booking booking) {
+    public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody Booking booking) {
 //        log.info("Creating new booking: {}", booking.getBookingNumber());
         Booking createdBooking = bookingService.createBooking(booking);
 //        log.info("Successfully created booking with id: {}", createdBooking.getId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdBooking);
+        return ResponseEntity.status(HttpStatus.CREATED).body(BookingResponse.from(createdBooking));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Booking> updateBooking(@PathVariable Long id, @Valid @RequestBody Booking booking) {
+    public ResponseEntity<BookingResponse> updateBooking(@PathVariable Long id, @Valid @RequestBody Booking booking) {
 //        log.info("Updating booking with id: {}", id);
         Booking updatedBooking = bookingService.updateBooking(id, booking);
 //        log.info("Successfully updated booking with id: {}", id);
-        return ResponseEntity.ok(updatedBooking);
+        return ResponseEntity.ok(BookingResponse.from(updatedBooking));
     }
 
     @DeleteMapping("/{id}")
@@ -73,43 +188,72 @@ public class BookingController {
     }
 
     @PostMapping("/{id}/assign-driver/{driverId}")
-    public ResponseEntity<Booking> assignDriver(@PathVariable Long id, @PathVariable Long driverId) {
+    public ResponseEntity<BookingResponse> assignDriver(@PathVariable Long id, @PathVariable Long driverId) {
 //        log.info("Assigning driver {} to booking {}", driverId, id);
         Booking booking = bookingService.assignDriver(id, driverId);
 //        log.info("Successfully assigned driver {} to booking {}", driverId, id);
-        return ResponseEntity.ok(booking);
+        return ResponseEntity.ok(BookingResponse.from(booking));
     }
 
+    /**
+     * Queues the file as a background import and answers 202 with the job; progress is read from
+     * {@link #getImportJob}.
+     */
     @PostMapping("/upload")
     public ResponseEntity<Map<String, Object>> uploadFile(@RequestParam("file") MultipartFile file) {
-//        log.info("Processing file upload: {}", file.getOriginalFilename());
-
         if (file.isEmpty()) {
             log.warn("Attempted to upload empty file");
             return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
         }
 
         try {
-            List<Booking> bookings = fileProcessingService.processExcelFile(file);
-            log.info("Successfully processed file: {} bookings created/updated", bookings.size());
-            return ResponseEntity.ok(Map.of(
-                    "message", "File processed successfully",
-                    "bookingsCreated", bookings.size()
+            ImportJobStatus job = importJobService.submit(file);
+            log.info("Queued import {} for file {}", job.jobId(), file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "message", "File queued for import",
+                    "jobId", job.jobId(),
+                    "job", job
+            ));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "error", "Too many imports in progress, try again later"
             ));
         } catch (IOException e) {
-            log.error("Failed to process file: {} - Error: {}", file.getOriginalFilename(), e.getMessage(), e);
+            log.error("Failed to store upload: {} - Error: {}", file.getOriginalFilename(), e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of(
                     "error", "Failed to process file: " + e.getMessage()
             ));
         }
     }
 
+    @GetMapping("/imports")
+    public ResponseEntity<List<ImportJobStatus>> getImportJobs() {
+        return ResponseEntity.ok(importJobService.getJobs());
+    }
+
+    @GetMapping("/imports/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(importJobService.getStatus(jobId));
+    }
+
+    /**
+     * Rows rejected by the import, as CSV (row, booking_number, error). Available while the job runs.
+     */
+    @GetMapping("/imports/{jobId}/errors")
+    public ResponseEntity<Resource> getImportErrors(@PathVariable String jobId) {
+        Resource report = new FileSystemResource(importJobService.getErrorReport(jobId));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + jobId + "-errors.csv\"")
+                .body(report);
+    }
+
     @GetMapping("/unsynced")
-    public ResponseEntity<List<Booking>> getUnsyncedBookings() {
+    public ResponseEntity<List<BookingResponse>> getUnsyncedBookings() {
 //        log.info("Fetching unsynced bookings");
         List<Booking> bookings = bookingService.getUnsyncedBookings();
 //        log.info("Found {} unsynced bookings", bookings.size());
-        return ResponseEntity.ok(bookings);
+        return ResponseEntity.ok(bookings.stream().map(BookingResponse::from).toList());
     }
 
     @PutMapping("/actions/bulk-sync")
@@ -120,7 +264,7 @@ public class BookingController {
             List<Booking> syncedBookings = bookingSyncService.syncMultipleBookings(ids);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("synced", syncedBookings);
+            response.put("synced", syncedBookings.stream().map(BookingResponse::from).toList());
             response.put("syncedCount", syncedBookings.size());
             response.put("totalCount", ids.size());
             response.put("failedCount", ids.size() - syncedBookings.size());
@@ -189,7 +333,7 @@ public class BookingController {
                 bookingRepository.save(booking);
 
 //                log.info("Successfully synced booking {} with external API", id);
-                return ResponseEntity.ok(booking);
+                return ResponseEntity.ok(BookingResponse.from(booking));
             } else {
                 log.error("External API returned failure for booking with id: {}, booking number: {}", id, booking.getBookingNumber());
                 return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
@@ -207,9 +351,14 @@ public class BookingController {
     public ResponseEntity<?> bulkDelete(@RequestBody List<Long> ids) {
 //        log.info("Starting bulk delete for {} bookings", ids.size());
         try {
-            bookingService.deleteMultipleBookings(ids);
+            PurgeResult result = bookingService.deleteMultipleBookings(ids);
 //            log.info("Successfully deleted {} bookings", ids.size());
-            return ResponseEntity.ok(Map.of("success", true));
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "deleted", result.bookings(),
+                    "chunks", result.chunks()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to delete bookings: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -217,6 +366,64 @@ public class BookingController {
         }
     }
 
+    /**
+     * Deletes every booking starting between {@code from} and {@code to} (inclusive days), streaming one
+     * NDJSON progress line per committed chunk.
+     */
+    @PostMapping("/actions/purge")
+    public ResponseEntity<StreamingResponseBody> purgeBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        BookingFilter range = toFilter(from, to, null, null, null);
+        if (!range.from().isBefore(range.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = objectMapper.writerFor(PurgeChunk.class);
+            bookingService.purgeBookings(range.from(), range.to(), chunk -> {
+                try {
+                    out.write(writer.writeValueAsBytes(chunk));
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // "to" is an inclusive day; the filter bound is the start of the following day
+    private static BookingFilter toFilter(LocalDate from, LocalDate to, Booking.BookingStatus status,
+                                          Long driverId, Boolean synced) {
+        return new BookingFilter(
+                from == null ? null : from.atStartOfDay(Booking.BOOKING_ZONE).toOffsetDateTime(),
+                to == null ? null : to.plusDays(1).atStartOfDay(Booking.BOOKING_ZONE).toOffsetDateTime(),
+                status, driverId, synced);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(StreamingResponseBody body, ExportFormat format,
+                                                                    String baseName) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + baseName + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    private static boolean isDescending(String direction) {
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unsupported direction: " + direction);
+    }
+
     private ExternalBookingDTO buildExternalBookingDTO(Booking booking) {
 
 //        log.debug("Building DTO for booking: {}", booking.getBookingNumber());
@@ -1,20 +1,34 @@
 package com.example.driverevents.controller;
 
 import com.example.driverevents.model.Destination;
+import com.example.driverevents.model.DestinationResponse;
+import com.example.driverevents.model.ImportResult;
 import com.example.driverevents.repository.DestinationsRepository;
+import com.example.driverevents.service.BookingScheduleService;
+import com.example.driverevents.service.ReferenceDataImportService;
+import com.example.driverevents.service.ReferenceDataLookupService;
+import com.example.driverevents.service.RouteDurationService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/destinations")
 @RequiredArgsConstructor
 public class DestinationController {
 
     private final DestinationsRepository destinationsRepository;
+    private final RouteDurationService routeDurationService;
+    private final BookingScheduleService bookingScheduleService;
+    private final ReferenceDataImportService referenceDataImportService;
+    private final ReferenceDataLookupService referenceDataLookupService;
 
     @PostMapping
     public ResponseEntity<?> createDestination(@RequestBody Destination destination) {
@@ -22,30 +36,62 @@ public class DestinationController {
             return ResponseEntity.badRequest().body("All fields are required");
         }
         Destination saved = destinationsRepository.save(destination);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        routeDurationService.onSaved(saved);
+        bookingScheduleService.onRouteChanged(saved.getStartLocation(), saved.getEndLocation());
+        return ResponseEntity.status(HttpStatus.CREATED).body(DestinationResponse.from(saved));
+    }
+
+    /**
+     * Creates routes or changes their duration from a sheet or CSV (start location, end location, duration minutes),
+     * matched by start and end location. Bookings on changed routes get their end times re-derived.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importDestinations(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("File is empty");
+        }
+        try {
+            ImportResult result = referenceDataImportService.importDestinations(file);
+            log.info("Imported routes from {}: {} created, {} updated, {} skipped, {} failed",
+                    file.getOriginalFilename(), result.created(), result.updated(), result.skipped(),
+                    result.errors().size());
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            log.error("Failed to read routes file {}: {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Failed to process file: " + e.getMessage());
+        }
     }
 
     @GetMapping
-    public ResponseEntity<List<Destination>> getDestinations() {
-        return ResponseEntity.ok(destinationsRepository.findAll());
+    public ResponseEntity<List<DestinationResponse>> getDestinations() {
+        return ResponseEntity.ok(referenceDataLookupService.getDestinations());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateDestination(@PathVariable Long id, @RequestBody Destination updateDestination) {
         return destinationsRepository.findById(id).map(destination -> {
+            String previousStart = destination.getStartLocation();
+            String previousEnd = destination.getEndLocation();
             destination.setStartLocation(updateDestination.getStartLocation());
             destination.setEndLocation(updateDestination.getEndLocation());
             destination.setDurationMinutes(updateDestination.getDurationMinutes());
-            return ResponseEntity.ok(destinationsRepository.save(destination));
+            Destination saved = destinationsRepository.save(destination);
+            routeDurationService.onSaved(saved);
+            bookingScheduleService.onRouteChanged(previousStart, previousEnd);
+            bookingScheduleService.onRouteChanged(saved.getStartLocation(), saved.getEndLocation());
+            return ResponseEntity.ok(DestinationResponse.from(saved));
         }).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteDestination(@PathVariable Long id) {
-        if (!destinationsRepository.existsById(id)) {
+        Destination existing = destinationsRepository.findById(id).orElse(null);
+        if (existing == null) {
             return ResponseEntity.notFound().build();
         }
         destinationsRepository.deleteById(id);
+        routeDurationService.onDeleted(id);
+        bookingScheduleService.onRouteChanged(existing.getStartLocation(), existing.getEndLocation());
         return ResponseEntity.noContent().build();
     }
 }
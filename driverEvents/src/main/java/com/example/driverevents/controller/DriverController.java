@@ -2,8 +2,13 @@ package com.example.driverevents.controller;
 
 import com.example.driverevents.config.TokenGenerator;
 import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.DriverResponse;
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.model.NearbyDriver;
 import com.example.driverevents.model.Vehicle;
 import com.example.driverevents.repository.DriverRepository;
+import com.example.driverevents.service.DriverPositionIndex;
+import com.example.driverevents.service.ReferenceDataImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,9 +16,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import com.example.driverevents.repository.VehicleRepository;
 
 
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -26,6 +33,10 @@ public class DriverController {
 
     private final DriverRepository driverRepository;
 
+    private final DriverPositionIndex driverPositionIndex;
+
+    private final ReferenceDataImportService referenceDataImportService;
+
     @PostMapping
     public ResponseEntity<?> createDriver(@Valid @RequestBody Driver driver) {
 
@@ -46,13 +57,51 @@ public class DriverController {
                 saved.getEmail(),
                 saved.getTokenExpiry());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).body(DriverResponse.from(saved));
+    }
+
+    /**
+     * Creates or updates drivers from a sheet or CSV (name, email, phone number, contact method, driver status,
+     * veh reg n), matched by email. New drivers get their API token here.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importDrivers(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("File is empty");
+        }
+        try {
+            ImportResult result = referenceDataImportService.importDrivers(file);
+            log.info("Imported drivers from {}: {} created, {} updated, {} skipped, {} failed",
+                    file.getOriginalFilename(), result.created(), result.updated(), result.skipped(),
+                    result.errors().size());
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            log.error("Failed to read drivers file {}: {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Failed to process file: " + e.getMessage());
+        }
     }
 
     @GetMapping
     @CrossOrigin(origins = {"http://localhost:5173", "https://driverlocations.live"})
-    public ResponseEntity<List<Driver>> getAllDrivers() {
-        return ResponseEntity.ok(driverRepository.findAll());
+    public ResponseEntity<List<DriverResponse>> getAllDrivers() {
+        return ResponseEntity.ok(driverRepository.findAll().stream().map(DriverResponse::from).toList());
+    }
+
+    /**
+     * Drivers closest to a point by their last known position, answered from {@link DriverPositionIndex}.
+     * Without {@code minCapacity}, drivers without a vehicle are included.
+     */
+    @GetMapping("/nearby")
+    @CrossOrigin(origins = {"http://localhost:5173", "https://driverlocations.live"})
+    public ResponseEntity<List<NearbyDriver>> getNearbyDrivers(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "20") double radiusKm,
+            @RequestParam(defaultValue = "AVAILABLE") Driver.DriverStatus status,
+            @RequestParam(required = false) Integer minCapacity) {
+        return ResponseEntity.ok(driverPositionIndex.nearest(lat, lng, Math.min(limit, 100), radiusKm * 1000,
+                status, minCapacity));
     }
 
     @PutMapping("/{id}")
@@ -70,7 +119,7 @@ public class DriverController {
             } else {
                 driver.setVehicles(null);
             }
-            return ResponseEntity.ok(driverRepository.save(driver));
+            return ResponseEntity.ok(DriverResponse.from(driverRepository.save(driver)));
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -85,7 +134,7 @@ public class DriverController {
 
             log.info("Token regenerated for driver: {}", saved.getEmail());
 
-            return ResponseEntity.ok(saved);
+            return ResponseEntity.ok(DriverResponse.from(saved));
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -95,6 +144,7 @@ public class DriverController {
             return ResponseEntity.notFound().build();
         }
         driverRepository.deleteById(id);
+        driverPositionIndex.remove(id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,23 @@
+package com.example.driverevents.controller;
+
+import com.example.driverevents.model.LocationFrame;
+import com.example.driverevents.service.LocationFrameService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+@RequiredArgsConstructor
+public class LocationFramesController {
+
+    private final LocationFrameService locationFrameService;
+
+    /**
+     * Key frame for a client starting on {@value LocationFrameService#FRAMES_TOPIC}; subscribing to
+     * /app/location/frames returns it to that client only.
+     */
+    @SubscribeMapping("/location/frames")
+    public LocationFrame keyFrame() {
+        return locationFrameService.keyFrame();
+    }
+}
@@ -1,20 +1,28 @@
 package com.example.driverevents.controller;
 
+import com.example.driverevents.model.ImportResult;
 import com.example.driverevents.model.Vehicle;
+import com.example.driverevents.model.VehicleResponse;
 import com.example.driverevents.repository.VehicleRepository;
+import com.example.driverevents.service.ReferenceDataImportService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/vehicles")
 @RequiredArgsConstructor
 public class VehicleController {
 
     private final VehicleRepository vehicleRepository;
+    private final ReferenceDataImportService referenceDataImportService;
 
     @PostMapping
     public ResponseEntity<?> createVehicle(@RequestBody Vehicle vehicle) {
@@ -23,13 +31,34 @@ public class VehicleController {
         }
 
         Vehicle saved = vehicleRepository.save(vehicle);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).body(VehicleResponse.from(saved));
+    }
+
+    /**
+     * Creates or updates vehicles from a sheet or CSV (reg num, model, brand, color, capacity, status, driver id,
+     * description), matched by registration number.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importVehicles(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("File is empty");
+        }
+        try {
+            ImportResult result = referenceDataImportService.importVehicles(file);
+            log.info("Imported vehicles from {}: {} created, {} updated, {} skipped, {} failed",
+                    file.getOriginalFilename(), result.created(), result.updated(), result.skipped(),
+                    result.errors().size());
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            log.error("Failed to read vehicles file {}: {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Failed to process file: " + e.getMessage());
+        }
     }
 
     @GetMapping()
     @CrossOrigin(origins = {"http://localhost:5173", "https://driverlocations.live"})
-    public List<Vehicle> getAllVehicles() {
-        return vehicleRepository.findAll();
+    public List<VehicleResponse> getAllVehicles() {
+        return vehicleRepository.findAll().stream().map(VehicleResponse::from).toList();
     }
 
 //    @GetMapping
@@ -38,8 +67,10 @@ public class VehicleController {
 //    }
 
     @GetMapping("/available")
-    public List<Vehicle> getAvailableVehicles() {
-        return vehicleRepository.findByStatus(Vehicle.VehicleStatus.AVAILABLE);
+    public List<VehicleResponse> getAvailableVehicles() {
+        return vehicleRepository.findByStatus(Vehicle.VehicleStatus.AVAILABLE).stream()
+                .map(VehicleResponse::from)
+                .toList();
     }
 
 
@@ -52,7 +83,7 @@ public class VehicleController {
             vehicle.setColor(updatedVehicle.getColor());
             vehicle.setCapacity(updatedVehicle.getCapacity());
             vehicle.setStatus(updatedVehicle.getStatus());
-            return ResponseEntity.ok(vehicleRepository.save(vehicle));
+            return ResponseEntity.ok(VehicleResponse.from(vehicleRepository.save(vehicle)));
         }).orElse(ResponseEntity.notFound().build());
     }
 
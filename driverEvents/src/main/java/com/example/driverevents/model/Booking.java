@@ -1,36 +1,54 @@
 package com.example.driverevents.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_driver_start_at", columnList = "driver_id, start_at"),
+        @Index(name = "idx_bookings_start_at", columnList = "start_at")
+})
 @Data
 public class Booking {
 
+    // bookingDate and startTime are local times at the destination
+    public static final ZoneId BOOKING_ZONE = ZoneId.of("Europe/Sofia");
+
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched; see IdSequenceAligner
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     @Column(unique = true)
     private String bookingNumber;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: callers that need the driver load it through an entity graph (see BookingRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id", nullable = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Driver driver;
 
     private String driverName;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Vehicle vehicle;
 
     private String vehicleNumber;
@@ -43,6 +61,14 @@ public class Booking {
     @Column(name = "start_time")
     private LocalTime startTime;
 
+    // bookingDate + startTime as an instant; maintained by BookingScheduleService
+    @Column(name = "start_at")
+    private OffsetDateTime startAt;
+
+    // startAt + route duration, null while the route has no configured duration
+    @Column(name = "end_at")
+    private OffsetDateTime endAt;
+
     @NotBlank
     private String startLocation;
 
@@ -61,6 +87,11 @@ public class Booking {
 
     private boolean syncedWithApi;
 
+    // SHA-256 of the sheet row this booking was last imported from; cleared by manual edits
+    @JsonIgnore
+    @Column(name = "import_fingerprint", length = 64)
+    private String importFingerprint;
+
     private BookingStatus status = BookingStatus.BEFORE_PICKUP;
 
     @Column(nullable = false)
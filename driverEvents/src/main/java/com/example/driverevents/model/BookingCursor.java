@@ -0,0 +1,36 @@
+package com.example.driverevents.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort key and id of the last row of a page.
+ *
+ * @param id    id of the last row
+ * @param value sort key of the last row as a string, null when the row has no value for the key
+ */
+public record BookingCursor(long id, String value) {
+
+    public static BookingCursor after(BookingSummary booking, BookingSort sort) {
+        Object value = sort.valueOf(booking);
+        return new BookingCursor(booking.id(), value == null ? null : value.toString());
+    }
+
+    public String encode() {
+        String raw = value == null ? Long.toString(id) : id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                return new BookingCursor(Long.parseLong(raw), null);
+            }
+            return new BookingCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
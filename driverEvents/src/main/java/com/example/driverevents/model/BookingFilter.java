@@ -0,0 +1,20 @@
+package com.example.driverevents.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Server-side filters for booking listings and exports. Null fields are not applied.
+ *
+ * @param from     start_at lower bound (inclusive)
+ * @param to       start_at upper bound (exclusive)
+ * @param status   booking status
+ * @param driverId assigned driver
+ * @param synced   syncedWithApi flag
+ */
+public record BookingFilter(
+        OffsetDateTime from,
+        OffsetDateTime to,
+        Booking.BookingStatus status,
+        Long driverId,
+        Boolean synced) {
+}
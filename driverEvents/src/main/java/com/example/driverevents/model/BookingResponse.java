@@ -0,0 +1,42 @@
+package com.example.driverevents.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+
+/**
+ * Booking detail as returned by the API; field names match what the entity used to serialize to.
+ */
+public record BookingResponse(
+        Long id,
+        String bookingNumber,
+        String bookingDate,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm") LocalTime startTime,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        String startLocation,
+        String destination,
+        LocalDateTime finishTime,
+        String arrivalOrDeparture,
+        @JsonProperty("prvorShuttle") String prvOrShuttle,
+        String notes,
+        Booking.BookingStatus status,
+        boolean syncedWithApi,
+        String driverName,
+        String vehicleNumber,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        DriverRef driver,
+        VehicleRef vehicle) {
+
+    public static BookingResponse from(Booking b) {
+        return new BookingResponse(b.getId(), b.getBookingNumber(), b.getBookingDate(), b.getStartTime(),
+                b.getStartAt(), b.getEndAt(), b.getStartLocation(), b.getDestination(), b.getFinishTime(),
+                b.getArrivalOrDeparture(), b.getPRVorShuttle(), b.getNotes(), b.getStatus(),
+                Boolean.TRUE.equals(b.getSyncedWithApi()), b.getDriverName(), b.getVehicleNumber(),
+                b.getCreatedAt(), b.getUpdatedAt(), DriverRef.of(b.getDriver()), VehicleRef.of(b.getVehicle()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.driverevents.model;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.function.Function;
+
+/**
+ * Sort keys supported by keyset pagination. Ties are always broken by id.
+ */
+public enum BookingSort {
+    START_AT("startAt", BookingSummary::startAt, OffsetDateTime::parse),
+    CREATED_AT("createdAt", BookingSummary::createdAt, LocalDateTime::parse),
+    BOOKING_NUMBER("bookingNumber", BookingSummary::bookingNumber, value -> value);
+
+    private final String attribute;
+    private final Function<BookingSummary, Object> extractor;
+    private final Function<String, Object> parser;
+
+    BookingSort(String attribute, Function<BookingSummary, Object> extractor, Function<String, Object> parser) {
+        this.attribute = attribute;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Object valueOf(BookingSummary booking) {
+        return extractor.apply(booking);
+    }
+
+    public Object parse(String value) {
+        return value == null ? null : parser.apply(value);
+    }
+
+    public static BookingSort fromParameter(String parameter) {
+        for (BookingSort sort : values()) {
+            if (sort.attribute.equalsIgnoreCase(parameter) || sort.name().equalsIgnoreCase(parameter)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + parameter);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.driverevents.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+
+/**
+ * List-view projection of a booking: only the columns the dashboard shows, read in a single
+ * statement without materializing Booking / Driver / Vehicle entities.
+ */
+public record BookingSummary(
+        Long id,
+        String bookingNumber,
+        String bookingDate,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm") LocalTime startTime,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        String startLocation,
+        String destination,
+        String arrivalOrDeparture,
+        @JsonProperty("prvorShuttle") String prvOrShuttle,
+        Booking.BookingStatus status,
+        boolean syncedWithApi,
+        String driverName,
+        String vehicleNumber,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        DriverRef driver,
+        VehicleRef vehicle) {
+
+    /**
+     * Flat constructor for JPQL constructor expressions; see {@link #SELECT}.
+     */
+    public BookingSummary(Long id, String bookingNumber, String bookingDate, LocalTime startTime,
+                          OffsetDateTime startAt, OffsetDateTime endAt, String startLocation, String destination,
+                          String arrivalOrDeparture, String prvOrShuttle, Booking.BookingStatus status,
+                          Boolean syncedWithApi, String driverName, String vehicleNumber, String notes,
+                          LocalDateTime createdAt, LocalDateTime updatedAt,
+                          Long driverId, String driverFullName, String driverEmail,
+                          Long vehicleId, String registrationNumber, String brand, String model, String color) {
+        this(id, bookingNumber, bookingDate, startTime, startAt, endAt, startLocation, destination,
+                arrivalOrDeparture, prvOrShuttle, status, Boolean.TRUE.equals(syncedWithApi), driverName,
+                vehicleNumber, notes, createdAt, updatedAt,
+                driverId == null ? null : new DriverRef(driverId, driverFullName, driverEmail),
+                vehicleId == null ? null : new VehicleRef(vehicleId, registrationNumber, brand, model, color));
+    }
+
+    /**
+     * Select clause matching the flat constructor, for queries over {@code Booking b LEFT JOIN b.driver d
+     * LEFT JOIN b.vehicle v}.
+     */
+    public static final String SELECT = """
+            SELECT new com.example.driverevents.model.BookingSummary(
+                b.id, b.bookingNumber, b.bookingDate, b.startTime, b.startAt, b.endAt, b.startLocation,
+                b.destination, b.arrivalOrDeparture, b.PRVorShuttle, b.status, b.syncedWithApi, b.driverName,
+                b.vehicleNumber, b.notes, b.createdAt, b.updatedAt,
+                d.id, d.name, d.email,
+                v.id, v.registrationNumber, v.brand, v.model, v.color)
+            FROM Booking b
+            LEFT JOIN b.driver d
+            LEFT JOIN b.vehicle v
+            """;
+}
@@ -0,0 +1,59 @@
+package com.example.driverevents.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The path a booking took, reduced to at most the requested number of points.
+ * <p>
+ * {@code polyline} uses the encoded polyline format (1e-5 degrees) that map libraries decode directly;
+ * {@code offsets} holds, in the same order, the seconds from {@code startedAt} at which each point was
+ * recorded.
+ */
+public record BookingTrack(
+        Long bookingId,
+        int totalPoints,
+        int returnedPoints,
+        Instant startedAt,
+        Instant endedAt,
+        String polyline,
+        int[] offsets) {
+
+    public static BookingTrack of(Long bookingId, int totalPoints, List<TrackPoint> points) {
+        if (points.isEmpty()) {
+            return new BookingTrack(bookingId, totalPoints, 0, null, null, "", new int[0]);
+        }
+        Instant startedAt = points.get(0).timestamp();
+        int[] offsets = new int[points.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = (int) Duration.between(startedAt, points.get(i).timestamp()).toSeconds();
+        }
+        return new BookingTrack(bookingId, totalPoints, points.size(), startedAt,
+                points.get(points.size() - 1).timestamp(), encodePolyline(points), offsets);
+    }
+
+    static String encodePolyline(List<TrackPoint> points) {
+        StringBuilder out = new StringBuilder(points.size() * 8);
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (TrackPoint p : points) {
+            long latitude = Math.round(p.latitude() * 1e5);
+            long longitude = Math.round(p.longitude() * 1e5);
+            encodeSigned(out, latitude - previousLatitude);
+            encodeSigned(out, longitude - previousLongitude);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return out.toString();
+    }
+
+    private static void encodeSigned(StringBuilder out, long value) {
+        long shifted = value < 0 ? ~(value << 1) : value << 1;
+        while (shifted >= 0x20) {
+            out.append((char) ((0x20 | (shifted & 0x1F)) + 63));
+            shifted >>= 5;
+        }
+        out.append((char) (shifted + 63));
+    }
+}
@@ -1,15 +1,54 @@
 package com.example.driverevents.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of a booking while its forwarding window is open. Holds only what location
+ * forwarding needs, so the active-bookings cache does not pin JPA entity graphs in memory.
+ */
+public record BookingWindow(
+        Long bookingId,
+        String bookingNumber,
+        String driverEmail,             // lower-cased
+        Long vehicleId,
+        String vehicleRegistration,
+        boolean syncedWithApi,
+        LocalDateTime activeFrom,
+        LocalDateTime activeUntil) {
+
+    // Locations are forwarded from this long before the scheduled start
+    public static final long LEAD_MINUTES = 30;
+
+    /**
+     * Window derived from the booking's start_at / end_at, in {@link Booking#BOOKING_ZONE} local time
+     * like the driver location timestamps. Null when the booking has no schedule yet.
+     */
+    public static BookingWindow of(Booking booking) {
+        if (booking.getStartAt() == null || booking.getEndAt() == null) {
+            return null;
+        }
+        return of(booking,
+                toLocal(booking.getStartAt()).minusMinutes(LEAD_MINUTES),
+                toLocal(booking.getEndAt()));
+    }
 
-@Data
-@AllArgsConstructor
-public class BookingWindow {
+    public static BookingWindow of(Booking booking, LocalDateTime activeFrom, LocalDateTime activeUntil) {
+        Driver driver = booking.getDriver();
+        Vehicle vehicle = booking.getVehicle();
+        return new BookingWindow(
+                booking.getId(),
+                booking.getBookingNumber(),
+                driver != null && driver.getEmail() != null ? driver.getEmail().toLowerCase(Locale.ROOT) : null,
+                vehicle != null ? vehicle.getId() : null,
+                vehicle != null ? vehicle.getRegistrationNumber() : booking.getVehicleNumber(),
+                Boolean.TRUE.equals(booking.getSyncedWithApi()),
+                activeFrom,
+                activeUntil);
+    }
 
-    private Booking booking;
-    private LocalDateTime activeFrom;
-    private LocalDateTime activeUntil;
+    private static LocalDateTime toLocal(OffsetDateTime instant) {
+        return instant.atZoneSameInstant(Booking.BOOKING_ZONE).toLocalDateTime();
+    }
 }
@@ -1,12 +1,14 @@
 package com.example.driverevents.model;
 
 
+import com.example.driverevents.service.ReferenceDataListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "destinations")
 @Data
 public class Destination {
@@ -0,0 +1,8 @@
+package com.example.driverevents.model;
+
+public record DestinationResponse(Long id, String startLocation, String endLocation, Integer durationMinutes) {
+
+    public static DestinationResponse from(Destination d) {
+        return new DestinationResponse(d.getId(), d.getStartLocation(), d.getEndLocation(), d.getDurationMinutes());
+    }
+}
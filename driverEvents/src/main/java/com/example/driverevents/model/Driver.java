@@ -1,15 +1,19 @@
 package com.example.driverevents.model;
 
+import com.example.driverevents.service.ReferenceDataListener;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "drivers")
 @Data
 public class Driver {
@@ -38,8 +42,10 @@ public class Driver {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Vehicle vehicles;
 
     @Enumerated(EnumType.STRING)
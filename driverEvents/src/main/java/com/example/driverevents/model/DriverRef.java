@@ -0,0 +1,20 @@
+package com.example.driverevents.model;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Driver as embedded in other responses: enough to display and link it, never its own associations.
+ */
+public record DriverRef(Long id, String name, String email) {
+
+    public static DriverRef of(Driver driver) {
+        if (driver == null) {
+            return null;
+        }
+        // an association nobody fetched stays a bare id rather than loading (or failing) here
+        if (!Hibernate.isInitialized(driver)) {
+            return new DriverRef(driver.getId(), null, null);
+        }
+        return new DriverRef(driver.getId(), driver.getName(), driver.getEmail());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.driverevents.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Driver as returned by the API. The assigned vehicle is a {@link VehicleRef}, so the
+ * driver -> vehicle -> driver link is never followed.
+ */
+public record DriverResponse(
+        Long id,
+        String name,
+        String email,
+        @JsonProperty("phone") String phoneNumber,
+        String token,
+        LocalDateTime tokenExpiry,
+        @JsonProperty("isActive") Boolean active,
+        Driver.ContactMethod preferredContactMethod,
+        Driver.DriverStatus status,
+        VehicleRef vehicles) {
+
+    public static DriverResponse from(Driver d) {
+        return new DriverResponse(d.getId(), d.getName(), d.getEmail(), d.getPhoneNumber(), d.getToken(),
+                d.getTokenExpiry(), d.getIsActive(), d.getPreferredContactMethod(), d.getStatus(),
+                VehicleRef.of(d.getVehicles()));
+    }
+}
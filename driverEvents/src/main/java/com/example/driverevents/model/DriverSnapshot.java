@@ -0,0 +1,31 @@
+package com.example.driverevents.model;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Immutable copy of a driver and its vehicle, safe to cache and share between threads. Location processing
+ * reads drivers through this instead of the entity.
+ */
+public record DriverSnapshot(
+        Long id,
+        String name,
+        String email,
+        Driver.DriverStatus status,
+        boolean active,
+        Long vehicleId,
+        String vehicleRegistration,
+        Integer vehicleCapacity) {
+
+    public static DriverSnapshot of(Driver driver) {
+        if (driver == null) {
+            return null;
+        }
+        Vehicle vehicle = driver.getVehicles() != null && Hibernate.isInitialized(driver.getVehicles())
+                ? driver.getVehicles() : null;
+        return new DriverSnapshot(driver.getId(), driver.getName(), driver.getEmail(), driver.getStatus(),
+                !Boolean.FALSE.equals(driver.getIsActive()),
+                vehicle == null ? null : vehicle.getId(),
+                vehicle == null ? null : vehicle.getRegistrationNumber(),
+                vehicle == null ? null : vehicle.getCapacity());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.driverevents.model;
+
+/**
+ * File formats of the export endpoints.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParameter(String parameter) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + parameter);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.driverevents.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Snapshot of a background booking import, as returned by GET /api/bookings/imports/{jobId}.
+ * {@code failed} rows are listed in the job's error report.
+ */
+public record ImportJobStatus(
+        String jobId,
+        String fileName,
+        State state,
+        long rowsParsed,
+        long inserted,
+        long updated,
+        long skipped,
+        long failed,
+        OffsetDateTime submittedAt,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        String message) {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+}
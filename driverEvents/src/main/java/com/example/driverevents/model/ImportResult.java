@@ -0,0 +1,24 @@
+package com.example.driverevents.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of importing rows. {@code skipped} rows were unchanged or superseded by a later row with the
+ * same key; rows in {@code errors} were rejected.
+ */
+public record ImportResult(int created, int updated, int skipped, List<ImportRowError> errors) {
+
+    public static final ImportResult EMPTY = new ImportResult(0, 0, 0, List.of());
+
+    public int imported() {
+        return created + updated;
+    }
+
+    public ImportResult plus(ImportResult other) {
+        List<ImportRowError> allErrors = new ArrayList<>(errors);
+        allErrors.addAll(other.errors);
+        return new ImportResult(created + other.created, updated + other.updated, skipped + other.skipped,
+                allErrors);
+    }
+}
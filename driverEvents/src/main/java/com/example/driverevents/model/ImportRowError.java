@@ -0,0 +1,8 @@
+package com.example.driverevents.model;
+
+/**
+ * A sheet row that was not imported. {@code row} is the 1-based row number as shown in Excel; {@code key}
+ * is the row's natural key (booking number, driver email, registration number or route), as far as it
+ * could be read.
+ */
+public record ImportRowError(int row, String key, String message) {}
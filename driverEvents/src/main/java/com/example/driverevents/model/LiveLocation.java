@@ -0,0 +1,17 @@
+package com.example.driverevents.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A processed driver position as pushed to the live map, with the bookings it is active for.
+ * Also the unit passed between instances in cluster mode.
+ */
+public record LiveLocation(
+        long driverId,
+        String email,
+        Double latitude,
+        Double longitude,
+        LocalDateTime timestamp,        // Booking.BOOKING_ZONE local time, like the driver app sends it
+        List<Long> bookingIds) {
+}
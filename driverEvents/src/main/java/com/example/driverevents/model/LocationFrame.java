@@ -0,0 +1,22 @@
+package com.example.driverevents.model;
+
+/**
+ * One tick of the aggregated live-location feed.
+ * <p>
+ * Field names are kept to one letter because the frame goes out every tick. Each row of {@code d} is
+ * {@code [driverId, latitude * 1e5, longitude * 1e5, age]}: coordinates in fixed point (about 1 m)
+ * and the position's age in seconds before {@code t}. A key frame ({@code k}) holds every known driver;
+ * other frames only the drivers that moved since the previous one, and in {@code r} the drivers whose
+ * last position got too old to show. Clients drop frames whose {@code s} is not newer than the key
+ * frame they started from.
+ *
+ * @param s sequence number
+ * @param k true for a full key frame
+ * @param t frame time, epoch millis
+ * @param d driver rows
+ * @param r ids of drivers removed since the previous frame; empty in key frames
+ */
+public record LocationFrame(long s, boolean k, long t, long[][] d, long[] r) {
+
+    public static final double COORDINATE_SCALE = 1e5;
+}
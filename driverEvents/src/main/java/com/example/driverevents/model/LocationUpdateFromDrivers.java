@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @Setter
 public class LocationUpdateFromDrivers {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "drivers_locations_seq")
+    @SequenceGenerator(name = "drivers_locations_seq", sequenceName = "drivers_locations_seq", allocationSize = 50)
     private Long id;
 
     private String email;
@@ -5,11 +5,14 @@ import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "location_updates")
+@Table(name = "location_updates", indexes = {
+        @Index(name = "idx_location_updates_booking_timestamp", columnList = "booking_id, timestamp")
+})
 public class LocationUpdateToDb {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "location_updates_seq")
+    @SequenceGenerator(name = "location_updates_seq", sequenceName = "location_updates_seq", allocationSize = 50)
     private Long id;
 
     private Double latitude;
@@ -0,0 +1,23 @@
+package com.example.driverevents.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * A driver's last known position, as answered by GET /api/drivers/nearby.
+ * The vehicle fields are null for drivers without an assigned vehicle.
+ */
+public record NearbyDriver(
+        Long driverId,
+        String name,
+        String email,
+        Driver.DriverStatus status,
+        Long vehicleId,
+        String vehicleRegistration,
+        Integer capacity,
+        double latitude,
+        double longitude,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime timestamp,
+        double distanceMeters) {
+}
@@ -0,0 +1,6 @@
+package com.example.driverevents.model;
+
+/**
+ * Rows removed by one committed chunk of a bulk booking delete.
+ */
+public record PurgeChunk(int chunk, int bookings, int locationUpdates, int driverLocations) {}
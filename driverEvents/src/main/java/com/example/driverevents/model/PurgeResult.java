@@ -0,0 +1,5 @@
+package com.example.driverevents.model;
+
+import java.util.List;
+
+public record PurgeResult(long bookings, long locationUpdates, long driverLocations, List<PurgeChunk> chunks) {}
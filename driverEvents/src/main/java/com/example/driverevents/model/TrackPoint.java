@@ -0,0 +1,9 @@
+package com.example.driverevents.model;
+
+import java.time.Instant;
+
+/**
+ * One recorded position of a booking's track, as stored in location_updates or in the track archive.
+ */
+public record TrackPoint(Instant timestamp, double latitude, double longitude) {
+}
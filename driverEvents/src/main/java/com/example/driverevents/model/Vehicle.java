@@ -1,13 +1,17 @@
 package com.example.driverevents.model;
 
+import com.example.driverevents.service.ReferenceDataListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "vehicles")
 @Data
 public class Vehicle {
@@ -34,8 +38,10 @@ public class Vehicle {
 
     private String description;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Driver driver;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,21 @@
+package com.example.driverevents.model;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Vehicle as embedded in other responses: enough to display and link it, never its own associations.
+ */
+public record VehicleRef(Long id, String registrationNumber, String brand, String model, String color) {
+
+    public static VehicleRef of(Vehicle vehicle) {
+        if (vehicle == null) {
+            return null;
+        }
+        // an association nobody fetched stays a bare id rather than loading (or failing) here
+        if (!Hibernate.isInitialized(vehicle)) {
+            return new VehicleRef(vehicle.getId(), null, null, null, null);
+        }
+        return new VehicleRef(vehicle.getId(), vehicle.getRegistrationNumber(),
+                vehicle.getBrand(), vehicle.getModel(), vehicle.getColor());
+    }
+}
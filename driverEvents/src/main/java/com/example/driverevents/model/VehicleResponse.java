@@ -0,0 +1,22 @@
+package com.example.driverevents.model;
+
+/**
+ * Vehicle as returned by the API. The assigned driver is a {@link DriverRef}, so the
+ * vehicle -> driver -> vehicle link is never followed.
+ */
+public record VehicleResponse(
+        Long id,
+        String registrationNumber,
+        String model,
+        String brand,
+        String color,
+        Integer capacity,
+        String description,
+        Vehicle.VehicleStatus status,
+        DriverRef driver) {
+
+    public static VehicleResponse from(Vehicle v) {
+        return new VehicleResponse(v.getId(), v.getRegistrationNumber(), v.getModel(), v.getBrand(), v.getColor(),
+                v.getCapacity(), v.getDescription(), v.getStatus(), DriverRef.of(v.getDriver()));
+    }
+}
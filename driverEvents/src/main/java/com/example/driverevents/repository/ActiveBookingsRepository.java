@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
@@ -16,7 +17,7 @@ public interface ActiveBookingsRepository extends JpaRepository<Booking, Long> {
         FROM Booking b
         JOIN FETCH b.driver d
         JOIN FETCH b.vehicle v
-        WHERE b.bookingDate = :date
+        WHERE b.startAt >= :from AND b.startAt < :to
     """)
-    List<Booking> findBookingsForDate(@Param("date") String date);
+    List<Booking> findBookingsStartingBetween(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
 }
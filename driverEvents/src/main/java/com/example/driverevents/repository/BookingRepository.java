@@ -2,32 +2,53 @@ package com.example.driverevents.repository;
 
 import com.example.driverevents.model.Booking;
 import com.example.driverevents.model.Driver;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    // Detail, edit and sync paths read the driver and vehicle, so load them in the same select
+    @Override
+    @EntityGraph(attributePaths = {"driver", "vehicle"})
+    Optional<Booking> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"driver", "vehicle"})
+    List<Booking> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = {"driver", "vehicle"})
     Optional<Booking> findByBookingNumber(String bookingNumber);
-    List<Booking> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    // Import re-reads each written batch for the change events, whose listeners read driver and vehicle
+    @EntityGraph(attributePaths = {"driver", "vehicle"})
+    List<Booking> findByBookingNumberIn(Collection<String> bookingNumbers);
+
+    @EntityGraph(attributePaths = {"driver", "vehicle"})
+    List<Booking> findByStartAtBetween(OffsetDateTime start, OffsetDateTime end);
+
+    @EntityGraph(attributePaths = {"driver", "vehicle"})
     List<Booking> findBySyncedWithApi(boolean syncedWithApi);
-    void deleteAllByIdIn(List<Long> ids);
-
-    @Query(value = """
-        SELECT b.* FROM bookings b 
-        JOIN destinations d ON UPPER(b.start_location) = d.start_location\s
-                            AND UPPER(b.destination) = d.end_location
-        WHERE b.driver_id = :driverId 
-        AND :timestamp BETWEEN 
-            (TO_DATE(b.booking_date, 'DD.MM.YYYY') + b.start_time - interval '30 minutes') AND
-            (TO_DATE(b.booking_date, 'DD.MM.YYYY') + b.start_time + (d.duration_minutes || ' minutes')::interval)
-        """, nativeQuery = true)
-    List<Booking> findActiveBookingForDriver(@Param("driverId") Long driverId,
-                                                 @Param("timestamp") LocalDateTime timestamp);
+
+    // Range scan on (driver_id, start_at); end_at is checked on the few rows in range
+    @EntityGraph(attributePaths = {"driver", "vehicle"})
+    @Query("""
+        SELECT b FROM Booking b
+        WHERE b.driver.id = :driverId
+        AND b.startAt BETWEEN :earliestStart AND :latestStart
+        AND b.endAt >= :timestamp
+        """)
+    List<Booking> findActiveBookingsForDriver(@Param("driverId") Long driverId,
+                                              @Param("earliestStart") OffsetDateTime earliestStart,
+                                              @Param("latestStart") OffsetDateTime latestStart,
+                                              @Param("timestamp") OffsetDateTime timestamp);
 
 }
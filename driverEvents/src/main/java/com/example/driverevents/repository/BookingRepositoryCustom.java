@@ -0,0 +1,25 @@
+package com.example.driverevents.repository;
+
+import com.example.driverevents.model.BookingCursor;
+import com.example.driverevents.model.BookingFilter;
+import com.example.driverevents.model.BookingSort;
+import com.example.driverevents.model.BookingSummary;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Keyset page: up to {@code limit} bookings matching {@code filter} that sort after {@code after}
+     * (or from the beginning when {@code after} is null). Rows without a sort value come last.
+     */
+    List<BookingSummary> findPage(BookingFilter filter, BookingSort sort, boolean descending,
+                                  BookingCursor after, int limit);
+
+    /**
+     * Feeds every matching booking to {@code action} straight from a database cursor, so memory stays
+     * flat regardless of the number of rows. Must run inside a transaction.
+     */
+    void forEachMatching(BookingFilter filter, BookingSort sort, boolean descending, Consumer<BookingSummary> action);
+}
@@ -0,0 +1,106 @@
+package com.example.driverevents.repository;
+
+import com.example.driverevents.model.BookingCursor;
+import com.example.driverevents.model.BookingFilter;
+import com.example.driverevents.model.BookingSort;
+import com.example.driverevents.model.BookingSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingSummary> findPage(BookingFilter filter, BookingSort sort, boolean descending,
+                                         BookingCursor after, int limit) {
+        return buildQuery(filter, sort, descending, after)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public void forEachMatching(BookingFilter filter, BookingSort sort, boolean descending,
+                                Consumer<BookingSummary> action) {
+        TypedQuery<BookingSummary> query = buildQuery(filter, sort, descending, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        // projections are not managed, so nothing accumulates in the persistence context
+        try (Stream<BookingSummary> rows = query.getResultStream()) {
+            rows.forEach(action);
+        }
+    }
+
+    private TypedQuery<BookingSummary> buildQuery(BookingFilter filter, BookingSort sort, boolean descending,
+                                                  BookingCursor after) {
+        StringBuilder jpql = new StringBuilder(BookingSummary.SELECT).append(" WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter != null) {
+            if (filter.from() != null) {
+                jpql.append(" AND b.startAt >= :from");
+                params.put("from", filter.from());
+            }
+            if (filter.to() != null) {
+                jpql.append(" AND b.startAt < :to");
+                params.put("to", filter.to());
+            }
+            if (filter.status() != null) {
+                jpql.append(" AND b.status = :status");
+                params.put("status", filter.status());
+            }
+            if (filter.driverId() != null) {
+                jpql.append(" AND d.id = :driverId");
+                params.put("driverId", filter.driverId());
+            }
+            if (filter.synced() != null) {
+                jpql.append(" AND b.syncedWithApi = :synced");
+                params.put("synced", filter.synced());
+            }
+        }
+
+        String key = "b." + sort.getAttribute();
+        String cmp = descending ? "<" : ">";
+        if (after != null) {
+            Object value = parseCursorValue(sort, after);
+            if (value == null) {
+                // already inside the trailing block of rows without a sort value
+                jpql.append(" AND ").append(key).append(" IS NULL AND b.id ").append(cmp).append(" :afterId");
+            } else {
+                jpql.append(" AND (").append(key).append(' ').append(cmp).append(" :afterValue")
+                        .append(" OR (").append(key).append(" = :afterValue AND b.id ").append(cmp).append(" :afterId)")
+                        .append(" OR ").append(key).append(" IS NULL)");
+                params.put("afterValue", value);
+            }
+            params.put("afterId", after.id());
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ").append(key).append(direction).append(" NULLS LAST, b.id").append(direction);
+
+        TypedQuery<BookingSummary> query = entityManager.createQuery(jpql.toString(), BookingSummary.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    private static Object parseCursorValue(BookingSort sort, BookingCursor cursor) {
+        try {
+            return sort.parse(cursor.value());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor does not match sort " + sort.getAttribute());
+        }
+    }
+}
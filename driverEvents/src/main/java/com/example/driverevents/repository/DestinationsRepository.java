@@ -1,6 +1,8 @@
 package com.example.driverevents.repository;
 
+import com.example.driverevents.config.CacheConfig;
 import com.example.driverevents.model.Destination;
+import org.springframework.cache.annotation.CacheEvict;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +16,23 @@ import java.util.List;
 @EnableJpaRepositories
 public interface DestinationsRepository extends JpaRepository<Destination, Long> {
 
+    // ReferenceDataLookupService caches the destination list; any write drops it
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, allEntries = true)
+    <S extends Destination> S save(S destination);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, allEntries = true)
+    <S extends Destination> List<S> saveAll(Iterable<S> destinations);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, allEntries = true)
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, allEntries = true)
+    void delete(Destination destination);
+
     Destination findByStartLocationAndEndLocation(String startLocation, String endLocation);
     Destination findByStartLocation(String startLocation);
     Destination findByEndLocation(String endLocation);
@@ -1,22 +1,64 @@
 package com.example.driverevents.repository;
 
+import com.example.driverevents.config.CacheConfig;
 import com.example.driverevents.model.Driver;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 @EnableJpaRepositories
 public interface DriverRepository extends JpaRepository<Driver, Long> {
+
+    // Driver screens and booking assignment show the driver's vehicle
+    @Override
+    @EntityGraph(attributePaths = "vehicles")
+    List<Driver> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "vehicles")
+    Optional<Driver> findById(Long id);
+
+    @EntityGraph(attributePaths = "vehicles")
     Driver findByName(String name);
 
+    @EntityGraph(attributePaths = "vehicles")
     Optional<Driver> findByNameIgnoreCase(String name);
 
+    @EntityGraph(attributePaths = "vehicles")
     List<Driver> findByStatus(Driver.DriverStatus status);
 
+    // Bulk import resolves every driver named in a chunk at once; names must already be lower-cased
+    @EntityGraph(attributePaths = "vehicles")
+    @Query("SELECT d FROM Driver d WHERE lower(d.name) IN :names")
+    List<Driver> findByLowerNameIn(@Param("names") Collection<String> names);
+
+    @EntityGraph(attributePaths = "vehicles")
     Driver findByEmail(String driverEmail);
 
+    // ReferenceDataLookupService caches snapshots and ids of drivers; any driver write drops them
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.DRIVERS_BY_EMAIL, CacheConfig.DRIVERS_BY_NAME}, allEntries = true)
+    <S extends Driver> S save(S driver);
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.DRIVERS_BY_EMAIL, CacheConfig.DRIVERS_BY_NAME}, allEntries = true)
+    <S extends Driver> List<S> saveAll(Iterable<S> drivers);
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.DRIVERS_BY_EMAIL, CacheConfig.DRIVERS_BY_NAME}, allEntries = true)
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.DRIVERS_BY_EMAIL, CacheConfig.DRIVERS_BY_NAME}, allEntries = true)
+    void delete(Driver driver);
+
 }
\ No newline at end of file
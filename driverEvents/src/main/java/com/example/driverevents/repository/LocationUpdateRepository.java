@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +20,25 @@ public interface LocationUpdateRepository extends JpaRepository<LocationUpdateFr
 
     List<LocationUpdateFromDrivers> findBySentToApiIsNullOrderByTimestampAsc();
 
+    // Oldest unprocessed points, locked for the calling transaction; rows another instance is processing
+    // are skipped, so every point is handled by exactly one instance. The limit keeps the locks short and
+    // leaves the rest of a backlog to the other instances.
+    @Query(value = """
+            SELECT * FROM drivers_locations
+            WHERE sent_to_api IS NULL
+            ORDER BY timestamp
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<LocationUpdateFromDrivers> claimUnsent(@Param("limit") int limit);
+
+    // Newest point per driver since the given time, for seeding DriverPositionIndex
+    @Query(value = """
+            SELECT DISTINCT ON (lower(email)) *
+            FROM drivers_locations
+            WHERE timestamp > :since
+            ORDER BY lower(email), timestamp DESC
+            """, nativeQuery = true)
+    List<LocationUpdateFromDrivers> findLatestPerDriverSince(@Param("since") LocalDateTime since);
+
 }
@@ -1,7 +1,10 @@
 package com.example.driverevents.repository;
 
+import com.example.driverevents.config.CacheConfig;
 import com.example.driverevents.model.Driver;
+import org.springframework.cache.annotation.CacheEvict;
 import com.example.driverevents.model.Vehicle;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,12 +13,37 @@ import java.util.Optional;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "driver")
+    List<Vehicle> findAll();
+
+    @EntityGraph(attributePaths = "driver")
     List<Vehicle> findByStatus(Vehicle.VehicleStatus status);
     Optional<Vehicle> findByDriver(Driver driver);
+
+    @EntityGraph(attributePaths = "driver")
     Vehicle findByRegistrationNumber(String number);
 
     boolean existsByRegistrationNumber(String registrationNumber);
 
+    // Cached driver snapshots carry their vehicle, so vehicle writes invalidate them
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DRIVERS_BY_EMAIL, allEntries = true)
+    <S extends Vehicle> S save(S vehicle);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DRIVERS_BY_EMAIL, allEntries = true)
+    <S extends Vehicle> List<S> saveAll(Iterable<S> vehicles);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DRIVERS_BY_EMAIL, allEntries = true)
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DRIVERS_BY_EMAIL, allEntries = true)
+    void delete(Vehicle vehicle);
+
 }
 
 
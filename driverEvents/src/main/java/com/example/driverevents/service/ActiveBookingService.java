@@ -3,79 +3,262 @@ package com.example.driverevents.service;
 import com.example.driverevents.model.Booking;
 import com.example.driverevents.model.BookingWindow;
 import com.example.driverevents.repository.ActiveBookingsRepository;
-import com.example.driverevents.repository.DestinationsRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+/**
+ * Keeps the set of bookings whose forwarding window ([start - 30 min, end]) is currently open.
+ * <p>
+ * The cache is maintained incrementally from {@link BookingService.BookingChangedEvent}s and, for bulk
+ * end_at rewrites after a route duration changed, {@link BookingScheduleService.BookingsRescheduledEvent}s;
+ * with several instances, {@link PostgresLocationBus} reloads the bookings changed on the others. Each
+ * tracked booking gets a timer at the exact start and end of its window. A full reconciliation against
+ * the database runs rarely and only as a safety net for changes that bypass the service layer.
+ */
 @Slf4j
 @Service
 @EnableScheduling
 @RequiredArgsConstructor
 public class ActiveBookingService {
 
+    // Windows opening further ahead than this are left to the next reconciliation
+    private static final Duration SCHEDULING_HORIZON = Duration.ofHours(2);
+    // Trips that started longer ago than this are assumed finished
+    private static final Duration MAX_TRIP_LENGTH = Duration.ofHours(24);
+
     private final ActiveBookingsRepository activeBookingsRepository;
-    private final DestinationsRepository destinationsRepository;
 
     private final Map<Long, BookingWindow> activeBookingsCache = new ConcurrentHashMap<>();
 
-    @Scheduled(fixedRate = 300000) // every 5 mins
-    public void refreshActiveBookings() {
-        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
-        List<Booking> todaysBookings = activeBookingsRepository.findBookingsForDate(today);
+    // lower-cased driver email -> open windows; each list is immutable and replaced when one of its windows changes
+    private final Map<String, List<BookingWindow>> activeByDriver = new ConcurrentHashMap<>();
+
+    // Every booking with pending timers, whether its window is already open or not
+    private final Map<Long, BookingWindow> trackedWindows = new HashMap<>();
+    private final Map<Long, List<ScheduledFuture<?>>> windowTimers = new HashMap<>();
+
+    private final ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "booking-window-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcileActiveBookings();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingService.BookingChangedEvent event) {
+        try {
+            Booking b = event.booking();
+            if (b == null) {
+                untrack(event.bookingId());
+            } else {
+                track(b, now());
+            }
+        } catch (Exception e) {
+            log.error("Failed to update active window for booking {}: {}", event.bookingId(), e.getMessage(), e);
+            untrack(event.bookingId());
+        }
+    }
 
-        LocalDateTime now = LocalDateTime.now();
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsRescheduled(BookingScheduleService.BookingsRescheduledEvent event) {
+        reload(event.bookingIds());
+    }
 
-        for (Booking b : todaysBookings) {
+    /**
+     * Re-reads the given bookings that fall into the current window range; the rest cannot be tracked,
+     * so they are only dropped in case their window moved out of it. Used after bulk end_at rewrites and
+     * for bookings changed on another instance.
+     */
+    public void reload(Collection<Long> bookingIds) {
+        Set<Long> changed = new HashSet<>(bookingIds);
+        LocalDateTime now = now();
+        for (Booking b : findBookingsAround(now)) {
+            if (!changed.remove(b.getId())) {
+                continue;
+            }
             try {
-                LocalDate bookingDate = LocalDate.parse(b.getBookingDate(),
-                        DateTimeFormatter.ofPattern("dd.MM.yyyy"));
-
-                LocalDateTime startDateTime = LocalDateTime.of(bookingDate, b.getStartTime());
-
-                Integer durationMinutes = destinationsRepository
-                        .findDuration(b.getStartLocation().toUpperCase(), b.getDestination().toUpperCase());
-                if (durationMinutes == null) {
-                    System.out.println("No duration found for "+ b.getStartLocation() + " - " + b.getDestination());
-                    continue;
-                }
-
-                LocalDateTime endDateTime = startDateTime.plusMinutes(durationMinutes);
-
-                // Booking is active if we are within [startTime - 30 min, endTime]
-                if (!now.isBefore(startDateTime.minusMinutes(30)) && !now.isAfter(endDateTime)) {
-                    activeBookingsCache.put(b.getId(),
-                            new BookingWindow(b, startDateTime.minusMinutes(30), endDateTime));
-                } else {
-                    activeBookingsCache.remove(b.getId());                  // delete expired
-                }
+                track(b, now);
+            } catch (Exception e) {
+                log.warn("Failed to reload booking {}: {}", b.getBookingNumber(), e.getMessage());
+                untrack(b.getId());
+            }
+        }
+        changed.forEach(this::untrack);
+    }
+
+    /**
+     * Safety net: rebuilds the tracked windows from bookings starting around now and drops anything
+     * that is no longer backed by a row (deleted, moved to another day, driver removed).
+     */
+    @Scheduled(fixedDelayString = "${bookings.active.reconcile-interval-ms:1800000}",
+            initialDelayString = "${bookings.active.reconcile-interval-ms:1800000}")
+    public void reconcileActiveBookings() {
+        LocalDateTime now = now();
+        List<Booking> bookings = findBookingsAround(now);
+
+        Set<Long> seen = new HashSet<>();
+        for (Booking b : bookings) {
+            seen.add(b.getId());
+            try {
+                track(b, now);
             } catch (Exception e) {
                 // avoid crash if bad data
-                e.printStackTrace();
+                log.warn("Skipping booking {} during reconciliation: {}", b.getBookingNumber(), e.getMessage());
+                untrack(b.getId());
             }
         }
+
+        List<Long> stale;
+        synchronized (this) {
+            stale = new ArrayList<>(trackedWindows.keySet());
+        }
+        stale.addAll(activeBookingsCache.keySet());
+        stale.removeAll(seen);
+        stale.forEach(this::untrack);
+
+        log.debug("Reconciled active bookings: {} loaded, {} active", bookings.size(), activeBookingsCache.size());
     }
 
-    public List<Booking> getAllActiveBookings() {
-        return activeBookingsCache.values().stream().map(BookingWindow::getBooking).collect(Collectors.toList());
+    public List<BookingWindow> getAllActiveBookings() {
+        return List.copyOf(activeBookingsCache.values());
     }
 
-    public List<Booking> getActiveBookingsForDriver(String driverUsername) {
+    public List<BookingWindow> getActiveBookingsForDriver(String driverUsername) {
+        if (driverUsername == null) {
+            return List.of();
+        }
+        return activeByDriver.getOrDefault(driverUsername.toLowerCase(Locale.ROOT), List.of());
+    }
+
+    private synchronized void track(Booking b, LocalDateTime now) {
+        cancelTimers(b.getId());
+        trackedWindows.remove(b.getId());
+
+        // no driver, or no start_at / end_at (unparseable date, route without duration)
+        BookingWindow window = b.getDriver() == null ? null : BookingWindow.of(b);
+        if (window == null
+                || window.driverEmail() == null
+                || now.isAfter(window.activeUntil())
+                || now.plus(SCHEDULING_HORIZON).isBefore(window.activeFrom())) {
+            deactivate(b.getId());
+            return;
+        }
+
+        trackedWindows.put(b.getId(), window);
+        List<ScheduledFuture<?>> timers = new ArrayList<>(2);
+        if (now.isBefore(window.activeFrom())) {
+            deactivate(b.getId());
+            timers.add(schedule(() -> open(window), now, window.activeFrom()));
+        } else {
+            activate(window);
+        }
+        timers.add(schedule(() -> close(window), now, window.activeUntil()));
+        windowTimers.put(b.getId(), timers);
+    }
+
+    private synchronized void untrack(Long bookingId) {
+        cancelTimers(bookingId);
+        trackedWindows.remove(bookingId);
+        deactivate(bookingId);
+    }
+
+    private synchronized void open(BookingWindow window) {
+        Long id = window.bookingId();
+        // a timer that lost the race against a newer event must not resurrect an old window
+        if (trackedWindows.get(id) == window) {
+            activate(window);
+            log.debug("Booking {} window opened", window.bookingNumber());
+        }
+    }
+
+    private synchronized void close(BookingWindow window) {
+        Long id = window.bookingId();
+        if (trackedWindows.get(id) == window) {
+            trackedWindows.remove(id);
+            windowTimers.remove(id);
+            deactivate(id);
+            log.debug("Booking {} window closed", window.bookingNumber());
+        }
+    }
+
+    // activate / deactivate keep the per-driver lists in step with the cache; callers hold the monitor
+    private void activate(BookingWindow window) {
+        unindex(activeBookingsCache.put(window.bookingId(), window));
+        activeByDriver.merge(window.driverEmail(), List.of(window),
+                (windows, added) -> Stream.concat(windows.stream(), added.stream()).toList());
+    }
+
+    private void deactivate(Long bookingId) {
+        unindex(activeBookingsCache.remove(bookingId));
+    }
+
+    private void unindex(BookingWindow window) {
+        if (window == null) {
+            return;
+        }
+        activeByDriver.computeIfPresent(window.driverEmail(), (email, windows) -> {
+            List<BookingWindow> rest = windows.stream()
+                    .filter(w -> !w.bookingId().equals(window.bookingId()))
+                    .toList();
+            return rest.isEmpty() ? null : rest;
+        });
+    }
+
+    private List<Booking> findBookingsAround(LocalDateTime now) {
+        OffsetDateTime from = now.atZone(Booking.BOOKING_ZONE).toOffsetDateTime().minus(MAX_TRIP_LENGTH);
+        OffsetDateTime to = now.atZone(Booking.BOOKING_ZONE).toOffsetDateTime()
+                .plus(SCHEDULING_HORIZON).plusMinutes(BookingWindow.LEAD_MINUTES);
+        return activeBookingsRepository.findBookingsStartingBetween(from, to);
+    }
+
+    // Booking times and driver location timestamps are local to the booking zone, not the server
+    private static LocalDateTime now() {
+        return LocalDateTime.now(Booking.BOOKING_ZONE);
+    }
+
+    private ScheduledFuture<?> schedule(Runnable task, LocalDateTime now, LocalDateTime at) {
+        long delayMillis = Math.max(0, Duration.between(now, at).toMillis());
+        return windowTimer.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelTimers(Long bookingId) {
+        List<ScheduledFuture<?>> timers = windowTimers.remove(bookingId);
+        if (timers != null) {
+            timers.forEach(t -> t.cancel(false));
+        }
+    }
 
-        return activeBookingsCache.values().stream()
-                .map(BookingWindow::getBooking)
-                .filter(b -> b.getDriver() != null
-                        && driverUsername.equalsIgnoreCase(b.getDriver().getEmail()))
-                .collect(Collectors.toList());
+    @PreDestroy
+    public void shutdown() {
+        windowTimer.shutdownNow();
     }
 }
@@ -0,0 +1,73 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.BookingFilter;
+import com.example.driverevents.model.BookingSort;
+import com.example.driverevents.model.BookingSummary;
+import com.example.driverevents.model.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes bookings and booking tracks as CSV or .xlsx while they are read from a database cursor, so
+ * memory use does not depend on the number of rows exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingExportService {
+
+    // The first eight columns are the booking sheet layout, so an export can be uploaded again
+    private static final List<String> BOOKING_COLUMNS = List.of(
+            "Booking Number", "From", "Destination", "Type", "Transp", "Date", "Start Time", "Driver",
+            "Vehicle", "Status", "Start At", "End At", "Synced", "Notes", "Created At", "Updated At");
+
+    private static final List<String> TRACK_COLUMNS = List.of("Timestamp", "Latitude", "Longitude");
+
+    private final BookingService bookingService;
+    private final BookingTrackService bookingTrackService;
+
+    public void exportBookings(BookingFilter filter, BookingSort sort, boolean descending, ExportFormat format,
+                               OutputStream out) throws IOException {
+        try (TabularWriter writer = TabularWriter.open(format, out, "Bookings", BOOKING_COLUMNS)) {
+            try {
+                bookingService.streamBookings(filter, sort, descending, b -> write(writer, row(b)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * All recorded points of one booking, archived ones included, in timestamp order.
+     */
+    public void exportTrack(long bookingId, ExportFormat format, OutputStream out) throws IOException {
+        try (TabularWriter writer = TabularWriter.open(format, out, "Track", TRACK_COLUMNS)) {
+            try {
+                bookingTrackService.forEachPoint(bookingId,
+                        p -> write(writer, p.timestamp(), p.latitude(), p.longitude()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static Object[] row(BookingSummary b) {
+        return new Object[]{
+                b.bookingNumber(), b.startLocation(), b.destination(), b.arrivalOrDeparture(), b.prvOrShuttle(),
+                b.bookingDate(), b.startTime(), b.driverName(), b.vehicleNumber(), b.status(), b.startAt(),
+                b.endAt(), b.syncedWithApi(), b.notes(), b.createdAt(), b.updatedAt()
+        };
+    }
+
+    private static void write(TabularWriter writer, Object... values) {
+        try {
+            writer.row(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
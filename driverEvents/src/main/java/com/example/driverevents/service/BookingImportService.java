@@ -0,0 +1,222 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.model.ImportRowError;
+import com.example.driverevents.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes imported bookings with one batched {@code INSERT ... ON CONFLICT (booking_number) DO UPDATE}
+ * per chunk instead of loading and saving entities row by row.
+ * <p>
+ * Every written row stores a SHA-256 fingerprint of its imported fields. Re-uploads of the same sheet skip
+ * rows whose fingerprint is unchanged, so those bookings keep their sync state and produce no write or event.
+ * <p>
+ * Ids of new rows come straight from bookings_seq. Each nextval is the top of a block Hibernate's pooled
+ * optimizer never hands out, so they cannot collide with JPA inserts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingImportService {
+
+    private static final String UPSERT = """
+            INSERT INTO bookings (id, booking_number, driver_id, driver_name, vehicle_id, vehicle_number,
+                                  booking_date, start_time, start_at, end_at, start_location, destination,
+                                  arrival_or_departure, notes, prvor_shuttle, synced_with_api, status,
+                                  import_fingerprint, created_at, updated_at)
+            VALUES (nextval('bookings_seq'), :bookingNumber, :driverId, :driverName, :vehicleId, :vehicleNumber,
+                    :bookingDate, :startTime, :startAt, :endAt, :startLocation, :destination,
+                    :arrivalOrDeparture, :notes, :prvOrShuttle, false, :status,
+                    :fingerprint, :now, :now)
+            ON CONFLICT (booking_number) DO UPDATE SET
+                driver_id = EXCLUDED.driver_id,
+                driver_name = EXCLUDED.driver_name,
+                vehicle_id = EXCLUDED.vehicle_id,
+                vehicle_number = EXCLUDED.vehicle_number,
+                booking_date = EXCLUDED.booking_date,
+                start_time = EXCLUDED.start_time,
+                start_at = EXCLUDED.start_at,
+                end_at = EXCLUDED.end_at,
+                start_location = EXCLUDED.start_location,
+                destination = EXCLUDED.destination,
+                arrival_or_departure = EXCLUDED.arrival_or_departure,
+                notes = EXCLUDED.notes,
+                prvor_shuttle = EXCLUDED.prvor_shuttle,
+                synced_with_api = false,
+                import_fingerprint = EXCLUDED.import_fingerprint,
+                updated_at = EXCLUDED.updated_at
+            WHERE bookings.import_fingerprint IS DISTINCT FROM EXCLUDED.import_fingerprint
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final BookingScheduleService bookingScheduleService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * A parsed sheet row; {@code row} is the 1-based Excel row number used in error reports.
+     */
+    public record ImportRow(int row, Booking booking) {}
+
+    /**
+     * Creates or updates the bookings of one chunk. When the same booking number appears more than once,
+     * the last row wins, as it would if the rows were imported one after another. Rows identical to what
+     * was last imported are counted as skipped. If the batch fails,
+     * rows are retried one by one so the failure is reported against the row that caused it.
+     */
+    public ImportResult upsert(List<ImportRow> rows) {
+        Map<String, ImportRow> byNumber = new LinkedHashMap<>();
+        rows.forEach(r -> byNumber.put(r.booking().getBookingNumber(), r));
+        if (byNumber.isEmpty()) {
+            return ImportResult.EMPTY;
+        }
+        Map<String, String> existing = findExisting(byNumber.keySet());
+        byNumber.values().removeIf(r -> {
+            String fingerprint = fingerprint(r.booking());
+            r.booking().setImportFingerprint(fingerprint);
+            return fingerprint.equals(existing.get(r.booking().getBookingNumber()));
+        });
+        if (byNumber.isEmpty()) {
+            return count(rows.size(), List.of(), existing.keySet(), List.of());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (ImportRow r : byNumber.values()) {
+            bookingScheduleService.apply(r.booking());
+        }
+
+        try {
+            write(byNumber.values(), now);
+            return count(rows.size(), byNumber.keySet(), existing.keySet(), List.of());
+        } catch (DataAccessException e) {
+            log.warn("Batch upsert of {} bookings failed, retrying row by row: {}", byNumber.size(), e.getMessage());
+        }
+
+        List<ImportRowError> errors = new ArrayList<>();
+        Set<String> written = new HashSet<>();
+        for (ImportRow r : byNumber.values()) {
+            try {
+                write(List.of(r), now);
+                written.add(r.booking().getBookingNumber());
+            } catch (DataAccessException e) {
+                errors.add(new ImportRowError(r.row(), r.booking().getBookingNumber(),
+                        e.getMostSpecificCause().getMessage()));
+            }
+        }
+        return count(rows.size(), written, existing.keySet(), errors);
+    }
+
+    /**
+     * Hash of the fields an import writes. Derived columns (start_at, end_at) are left out: they follow
+     * from these fields and the route matrix, which keeps them current on its own.
+     */
+    static String fingerprint(Booking b) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        Object[] fields = {
+                b.getBookingNumber(),
+                b.getDriver() == null ? null : b.getDriver().getId(),
+                b.getDriverName(),
+                b.getVehicle() == null ? null : b.getVehicle().getId(),
+                b.getVehicleNumber(),
+                b.getBookingDate(),
+                b.getStartTime(),
+                b.getStartLocation(),
+                b.getDestination(),
+                b.getArrivalOrDeparture(),
+                b.getNotes(),
+                b.getPRVorShuttle()
+        };
+        for (Object field : fields) {
+            // marks null apart from an empty string
+            digest.update(field == null ? (byte) 0 : (byte) 1);
+            if (field != null) {
+                digest.update(field.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0x1f);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // booking number -> stored fingerprint ("" when the row has none yet)
+    private Map<String, String> findExisting(Collection<String> bookingNumbers) {
+        Map<String, String> existing = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT booking_number, import_fingerprint FROM bookings WHERE booking_number IN (:numbers)",
+                new MapSqlParameterSource("numbers", bookingNumbers),
+                rs -> {
+                    String fingerprint = rs.getString(2);
+                    existing.put(rs.getString(1), fingerprint == null ? "" : fingerprint);
+                });
+        return existing;
+    }
+
+    private void write(Collection<ImportRow> rows, LocalDateTime now) {
+        SqlParameterSource[] batch = rows.stream().map(r -> parameters(r.booking(), now))
+                .toArray(SqlParameterSource[]::new);
+        List<String> numbers = rows.stream().map(r -> r.booking().getBookingNumber()).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPSERT, batch);
+            // listeners (active windows) get the stored rows, after this transaction commits
+            bookingRepository.findByBookingNumberIn(numbers)
+                    .forEach(b -> eventPublisher.publishEvent(new BookingService.BookingChangedEvent(b.getId(), b)));
+        });
+    }
+
+    private static ImportResult count(int rows, Collection<String> written, Set<String> existing,
+                                      List<ImportRowError> errors) {
+        int updated = (int) written.stream().filter(existing::contains).count();
+        return new ImportResult(written.size() - updated, updated, rows - written.size() - errors.size(), errors);
+    }
+
+    private static MapSqlParameterSource parameters(Booking b, LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("bookingNumber", b.getBookingNumber())
+                .addValue("driverId", b.getDriver() == null ? null : b.getDriver().getId())
+                .addValue("driverName", b.getDriverName())
+                .addValue("vehicleId", b.getVehicle() == null ? null : b.getVehicle().getId())
+                .addValue("vehicleNumber", b.getVehicleNumber())
+                .addValue("bookingDate", b.getBookingDate())
+                .addValue("startTime", b.getStartTime())
+                .addValue("startAt", b.getStartAt())
+                .addValue("endAt", b.getEndAt())
+                .addValue("startLocation", b.getStartLocation())
+                .addValue("destination", b.getDestination())
+                .addValue("arrivalOrDeparture", b.getArrivalOrDeparture())
+                .addValue("notes", b.getNotes())
+                .addValue("prvOrShuttle", b.getPRVorShuttle())
+                // ordinal, like the entity mapping
+                .addValue("status", b.getStatus().ordinal())
+                .addValue("fingerprint", b.getImportFingerprint())
+                .addValue("now", now);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingWindow;
+import com.example.driverevents.model.PurgeChunk;
+import com.example.driverevents.model.PurgeResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Set-based bulk delete of bookings together with their location_updates, track summaries, archived
+ * tracks and the drivers_locations recorded during their windows. Deleting a single booking
+ * ({@link #deleteBooking}) leaves the driver's drivers_locations alone.
+ * <p>
+ * Work is split into chunks of {@link #CHUNK_SIZE} bookings, each deleted with plain DELETE statements
+ * in its own transaction, so no entities are loaded and locks are held only briefly. A failure stops
+ * the run; chunks committed before it stay deleted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingPurgeService {
+
+    static final int CHUNK_SIZE = 500;
+    // Same bound ActiveBookingService uses for bookings without an end_at
+    private static final int MAX_TRIP_HOURS = 24;
+
+    // A point is only removed when no surviving booking of the same driver covers it. Points are found
+    // through (lower(email), timestamp) (db/007), covering bookings through (driver_id, start_at), which
+    // bounds their start to MAX_TRIP_HOURS before the point.
+    private static final String DELETE_DRIVER_LOCATIONS = """
+            DELETE FROM drivers_locations dl
+            USING bookings b
+            JOIN drivers d ON d.id = b.driver_id
+            WHERE b.id IN (:ids)
+              AND b.start_at IS NOT NULL
+              AND dl.sent_to_api IS NOT NULL
+              AND lower(dl.email) = lower(d.email)
+              AND dl.timestamp >= (b.start_at - make_interval(mins => CAST(:leadMinutes AS integer))) AT TIME ZONE :zone
+              AND dl.timestamp <= COALESCE(b.end_at, b.start_at + make_interval(hours => CAST(:maxTripHours AS integer)))
+                                  AT TIME ZONE :zone
+              AND NOT EXISTS (
+                  SELECT 1
+                  FROM bookings other
+                  WHERE other.driver_id = d.id
+                    AND other.id NOT IN (:ids)
+                    AND other.start_at <= (dl.timestamp AT TIME ZONE :zone)
+                                          + make_interval(mins => CAST(:leadMinutes AS integer))
+                    AND other.start_at >= (dl.timestamp AT TIME ZONE :zone)
+                                          - make_interval(hours => CAST(:maxTripHours AS integer))
+                    AND COALESCE(other.end_at, other.start_at + make_interval(hours => CAST(:maxTripHours AS integer)))
+                        >= dl.timestamp AT TIME ZONE :zone)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TrackArchiveService trackArchiveService;
+
+    public PurgeResult purge(List<Long> ids, Consumer<PurgeChunk> progress) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No booking IDs provided");
+        }
+        Totals totals = new Totals(progress);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            totals.add(deleteChunk(totals.nextChunk(), ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())),
+                    true));
+        }
+        return totals.result();
+    }
+
+    /**
+     * Deletes one booking with its location_updates, track summaries and archived track; the driver's
+     * raw points are kept.
+     */
+    public PurgeChunk deleteBooking(Long id) {
+        return deleteChunk(1, List.of(id), false);
+    }
+
+    /**
+     * Deletes every booking starting in [from, to). Ids are fetched one chunk at a time, so memory use
+     * does not depend on the size of the range.
+     */
+    public PurgeResult purgeRange(OffsetDateTime from, OffsetDateTime to, Consumer<PurgeChunk> progress) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("A range with from before to is required");
+        }
+        MapSqlParameterSource range = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("limit", CHUNK_SIZE);
+
+        Totals totals = new Totals(progress);
+        List<Long> ids;
+        while (!(ids = jdbcTemplate.queryForList("""
+                SELECT id FROM bookings
+                WHERE start_at >= :from AND start_at < :to
+                ORDER BY id
+                LIMIT :limit
+                """, range, Long.class)).isEmpty()) {
+            totals.add(deleteChunk(totals.nextChunk(), ids, true));
+        }
+        return totals.result();
+    }
+
+    private PurgeChunk deleteChunk(int chunk, List<Long> ids, boolean withDriverLocations) {
+        PurgeChunk result = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("leadMinutes", BookingWindow.LEAD_MINUTES)
+                    .addValue("maxTripHours", MAX_TRIP_HOURS)
+                    .addValue("zone", Booking.BOOKING_ZONE.getId());
+
+            int driverLocations = withDriverLocations ? jdbcTemplate.update(DELETE_DRIVER_LOCATIONS, params) : 0;
+            int locationUpdates = jdbcTemplate.update(
+                    "DELETE FROM location_updates WHERE booking_id IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM booking_track_summaries WHERE booking_id IN (:ids)", params);
+            int bookings = jdbcTemplate.update("DELETE FROM bookings WHERE id IN (:ids)", params);
+
+            // delivered after this chunk commits
+            ids.forEach(id -> eventPublisher.publishEvent(new BookingService.BookingChangedEvent(id, null)));
+            return new PurgeChunk(chunk, bookings, locationUpdates, driverLocations);
+        });
+        // archived tracks go once their bookings are gone for good
+        ids.forEach(trackArchiveService::delete);
+        log.info("Purge chunk {}: {} bookings, {} location updates, {} driver locations", chunk,
+                result.bookings(), result.locationUpdates(), result.driverLocations());
+        return result;
+    }
+
+    private static final class Totals {
+        private final Consumer<PurgeChunk> progress;
+        private final List<PurgeChunk> chunks = new ArrayList<>();
+        private long bookings;
+        private long locationUpdates;
+        private long driverLocations;
+
+        Totals(Consumer<PurgeChunk> progress) {
+            this.progress = progress == null ? chunk -> { } : progress;
+        }
+
+        int nextChunk() {
+            return chunks.size() + 1;
+        }
+
+        void add(PurgeChunk chunk) {
+            chunks.add(chunk);
+            bookings += chunk.bookings();
+            locationUpdates += chunk.locationUpdates();
+            driverLocations += chunk.driverLocations();
+            progress.accept(chunk);
+        }
+
+        PurgeResult result() {
+            return new PurgeResult(bookings, locationUpdates, driverLocations, List.copyOf(chunks));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Maintains {@code bookings.start_at} / {@code end_at}, the typed and indexed form of
+ * bookingDate + startTime (+ route duration) that all date-range and active-window queries use.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingScheduleService {
+
+    // Same bound ActiveBookingService uses for bookings without an end_at
+    private static final int MAX_TRIP_HOURS = 24;
+
+    private final RouteDurationService routeDurationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Published after end_at of {@code bookingIds} was rewritten in bulk, bypassing the entities.
+     * Listeners run after the surrounding transaction commits.
+     */
+    public record BookingsRescheduledEvent(List<Long> bookingIds) {}
+
+    public void apply(Booking booking) {
+        OffsetDateTime startAt = null;
+        try {
+            if (booking.getBookingDate() != null && booking.getStartTime() != null) {
+                startAt = LocalDateTime.of(booking.getParsedBookingDate(), booking.getStartTime())
+                        .atZone(Booking.BOOKING_ZONE)
+                        .toOffsetDateTime();
+            }
+        } catch (DateTimeParseException e) {
+            log.warn("Booking {} has an unparseable date '{}'", booking.getBookingNumber(), booking.getBookingDate());
+        }
+        booking.setStartAt(startAt);
+
+        Integer durationMinutes = startAt == null ? null
+                : routeDurationService.findDuration(booking.getStartLocation(), booking.getDestination());
+        booking.setEndAt(durationMinutes == null ? null : startAt.plusMinutes(durationMinutes));
+    }
+
+    /**
+     * Re-derives end_at for the bookings on a route after its duration was created, changed or removed.
+     * Finished trips keep their recorded window; only bookings that ended less than a trip length ago, or
+     * are still to come, are rewritten.
+     */
+    public int onRouteChanged(String startLocation, String endLocation) {
+        Integer durationMinutes = routeDurationService.currentDuration(startLocation, endLocation);
+        List<Long> bookingIds = jdbcTemplate.queryForList("""
+                UPDATE bookings
+                SET end_at = start_at + make_interval(mins => CAST(? AS integer))
+                WHERE start_at IS NOT NULL
+                  AND lower(trim(start_location)) = ?
+                  AND lower(trim(destination)) = ?
+                  AND COALESCE(end_at, start_at) >= now() - make_interval(hours => CAST(? AS integer))
+                RETURNING id
+                """,
+                Long.class,
+                durationMinutes,
+                RouteDurationService.normalize(startLocation),
+                RouteDurationService.normalize(endLocation),
+                MAX_TRIP_HOURS);
+        if (!bookingIds.isEmpty()) {
+            eventPublisher.publishEvent(new BookingsRescheduledEvent(bookingIds));
+        }
+        return bookingIds.size();
+    }
+
+    /**
+     * Fills start_at / end_at for rows written before the columns existed (or through raw SQL).
+     */
+    @PostConstruct
+    public void backfill() {
+        try {
+            int started = jdbcTemplate.update("""
+                    UPDATE bookings
+                    SET start_at = (to_date(booking_date, 'DD.MM.YYYY') + start_time) AT TIME ZONE ?
+                    WHERE start_at IS NULL
+                      AND start_time IS NOT NULL
+                      AND booking_date ~ '^[0-9]{2}\\.[0-9]{2}\\.[0-9]{4}$'
+                    """, Booking.BOOKING_ZONE.getId());
+
+            int ended = jdbcTemplate.update("""
+                    UPDATE bookings b
+                    SET end_at = b.start_at + make_interval(mins => d.duration_minutes)
+                    FROM destinations d
+                    WHERE b.end_at IS NULL
+                      AND b.start_at IS NOT NULL
+                      AND lower(trim(b.start_location)) = lower(trim(d.start_location))
+                      AND lower(trim(b.destination)) = lower(trim(d.end_location))
+                    """);
+
+            if (started > 0 || ended > 0) {
+                log.info("Backfilled start_at for {} and end_at for {} bookings", started, ended);
+            }
+        } catch (Exception e) {
+            log.error("Booking schedule backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
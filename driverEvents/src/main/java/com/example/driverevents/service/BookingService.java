@@ -1,8 +1,15 @@
 package com.example.driverevents.service;
 
 import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingCursor;
+import com.example.driverevents.model.BookingFilter;
+import com.example.driverevents.model.BookingSort;
+import com.example.driverevents.model.BookingSummary;
+import com.example.driverevents.model.CursorPage;
 import com.example.driverevents.model.Driver;
 import com.example.driverevents.model.ExternalBookingDTO;
+import com.example.driverevents.model.PurgeChunk;
+import com.example.driverevents.model.PurgeResult;
 import com.example.driverevents.model.Vehicle;
 import com.example.driverevents.repository.*;
 import jakarta.persistence.EntityNotFoundException;
@@ -10,13 +17,16 @@ import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.awt.print.Book;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -25,12 +35,39 @@ public class BookingService {
 
     private final BookingRepository bookingRepository;
     private final DriverRepository driverRepository;
-    private final SentLocationsToExternalApiRepository sentLocationsToExternalApiRepository;
+    private final ReferenceDataLookupService referenceDataLookupService;
+    private final BookingPurgeService bookingPurgeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingScheduleService bookingScheduleService;
+
+    /**
+     * Published after a booking is created, changed or deleted ({@code booking} is null on delete).
+     * Listeners run after the surrounding transaction commits.
+     */
+    public record BookingChangedEvent(Long bookingId, Booking booking) {}
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    @Transactional(readOnly = true)
+    public CursorPage<BookingSummary> getBookings(BookingFilter filter, BookingSort sort, boolean descending,
+                                                  String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        BookingCursor after = cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor);
+
+        // one extra row tells us whether there is a next page
+        List<BookingSummary> rows = bookingRepository.findPage(filter, sort, descending, after, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<BookingSummary> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, BookingCursor.after(page.get(pageSize - 1), sort).encode());
+    }
 
-    public List<Booking> getAllBookings() {
-        List<Booking> bookings = bookingRepository.findAll();
-        System.out.println("Fetched startTime: " + bookings.get(0).getStartTime());
-        return bookingRepository.findAll();
+    @Transactional(readOnly = true)
+    public void streamBookings(BookingFilter filter, BookingSort sort, boolean descending,
+                               Consumer<BookingSummary> action) {
+        bookingRepository.forEachMatching(filter, sort, descending, action);
     }
 
     public Booking getBookingById(Long id) {
@@ -46,43 +83,40 @@ public class BookingService {
     @Transactional
     public Booking createBooking(Booking booking) {
         booking.setSyncedWithApi(false);
-        return bookingRepository.save(booking);
+        bookingScheduleService.apply(booking);
+        return publishChanged(bookingRepository.save(booking));
     }
 
     @Transactional
     public Booking updateBooking(Long id, Booking bookingDetails) {
         Booking booking = getBookingById(id);
-        booking.setStartTime(bookingDetails.getStartTime());
-        booking.setBookingDate(bookingDetails.getBookingDate());
-        booking.setStartLocation(bookingDetails.getStartLocation());
-        booking.setDestination(bookingDetails.getDestination());
-        booking.setNotes(bookingDetails.getNotes());
-        booking.setSyncedWithApi(false);
-        booking.setPRVorShuttle(bookingDetails.getPRVorShuttle());
-        booking.setArrivalOrDeparture(bookingDetails.getArrivalOrDeparture());
+        copyDetails(booking, bookingDetails);
 
         String driverName = bookingDetails.getDriverName();
         driverName = driverName.trim().toLowerCase();
-        Optional<Driver> matchedDriverOpt = driverRepository.findByNameIgnoreCase(driverName);
+        // the name lookup caches the id; the booking gets this transaction's managed driver
+        Optional<Driver> matchedDriverOpt = referenceDataLookupService.findDriverIdByName(driverName)
+                .flatMap(driverRepository::findById);
         if (matchedDriverOpt.isPresent()) {
             Driver matchedDriver = matchedDriverOpt.get();
             booking.setDriver(matchedDriver);
             booking.setDriverName(matchedDriver.getName());
             Vehicle vehicle = matchedDriver.getVehicles();
             booking.setVehicle(vehicle);
-            booking.setVehicleNumber(vehicle.getRegistrationNumber());
+            booking.setVehicleNumber(vehicle != null ? vehicle.getRegistrationNumber() : null);
         } else {
             booking.setDriver(null);
             booking.setDriverName(driverName);
         }
 
-        return bookingRepository.save(booking);
+        return publishChanged(bookingRepository.save(booking));
     }
 
-    @Transactional
     public void deleteBooking(Long id) {
-        Booking booking = getBookingById(id);
-        bookingRepository.delete(booking);
+        if (!bookingRepository.existsById(id)) {
+            throw new EntityNotFoundException("Booking with id: " + id + " not found");
+        }
+        bookingPurgeService.deleteBooking(id);
     }
 
     @Transactional
@@ -103,17 +137,20 @@ public class BookingService {
 
         booking.setDriver(driver);
         booking.setSyncedWithApi(false);
+        booking.setImportFingerprint(null);
         driver.setStatus(Driver.DriverStatus.BUSY);
         driverRepository.save(driver);
 
-        return bookingRepository.save(booking);
+        return publishChanged(bookingRepository.save(booking));
     }
 
     @Transactional
     public Booking assignDriverByName(Long bookingId, String driverName) {
         Booking booking = getBookingById(bookingId);
 
-        Driver driver = driverRepository.findByNameIgnoreCase(driverName.trim())
+        // the name lookup caches the id; the driver changed here is this transaction's managed entity
+        Driver driver = referenceDataLookupService.findDriverIdByName(driverName)
+                .flatMap(driverRepository::findById)
                 .orElseThrow(() -> new EntityNotFoundException("Driver with name '" + driverName + "' not found"));
 
         if (driver.getVehicles() == null) {
@@ -127,36 +164,55 @@ public class BookingService {
         booking.setDriver(driver);
         booking.setDriverName(driver.getName()); // for frontend display
         booking.setSyncedWithApi(false);
+        booking.setImportFingerprint(null);
 
         driver.setStatus(Driver.DriverStatus.BUSY);
         driverRepository.save(driver);
 
-        return bookingRepository.save(booking);
+        return publishChanged(bookingRepository.save(booking));
     }
 
-    @Transactional
-    public void deleteMultipleBookings(List<Long> ids) {
-        if (ids == null || ids.isEmpty()) {
-            throw new IllegalArgumentException("No booking IDs provided");
-        }
-
-        log.info("Starting bulk delete for {} bookings", ids.size());
-
-        // Delete all location updates in one efficient query
-        int deletedLocations = sentLocationsToExternalApiRepository.deleteByBookingIdIn(ids);
-        log.info("Deleted {} location updates for {} bookings", deletedLocations, ids.size());
+    // Not transactional: each chunk commits on its own so large deletes never hold one long transaction
+    public PurgeResult deleteMultipleBookings(List<Long> ids) {
+        log.info("Starting bulk delete for {} bookings", ids == null ? 0 : ids.size());
+        PurgeResult result = bookingPurgeService.purge(ids, null);
+        log.info("Deleted {} bookings, {} location updates and {} driver locations in {} chunks",
+                result.bookings(), result.locationUpdates(), result.driverLocations(), result.chunks().size());
+        return result;
+    }
 
-        // Delete the bookings
-        bookingRepository.deleteAllByIdIn(ids);
-        log.info("Successfully deleted {} bookings", ids.size());
+    public PurgeResult purgeBookings(OffsetDateTime from, OffsetDateTime to, Consumer<PurgeChunk> progress) {
+        return bookingPurgeService.purgeRange(from, to, progress);
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsForDateRange(LocalDateTime start, LocalDateTime end) {
-        return bookingRepository.findByStartTimeBetween(start, end);
+        return bookingRepository.findByStartAtBetween(
+                start.atZone(Booking.BOOKING_ZONE).toOffsetDateTime(),
+                end.atZone(Booking.BOOKING_ZONE).toOffsetDateTime());
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getUnsyncedBookings() {
         return bookingRepository.findBySyncedWithApi(false);
     }
 
+    private void copyDetails(Booking booking, Booking bookingDetails) {
+        booking.setStartTime(bookingDetails.getStartTime());
+        booking.setBookingDate(bookingDetails.getBookingDate());
+        booking.setStartLocation(bookingDetails.getStartLocation());
+        booking.setDestination(bookingDetails.getDestination());
+        booking.setNotes(bookingDetails.getNotes());
+        booking.setSyncedWithApi(false);
+        booking.setImportFingerprint(null);
+        booking.setPRVorShuttle(bookingDetails.getPRVorShuttle());
+        booking.setArrivalOrDeparture(bookingDetails.getArrivalOrDeparture());
+        bookingScheduleService.apply(booking);
+    }
+
+    private Booking publishChanged(Booking booking) {
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), booking));
+        return booking;
+    }
+
 }
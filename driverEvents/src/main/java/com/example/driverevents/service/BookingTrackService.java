@@ -0,0 +1,280 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingTrack;
+import com.example.driverevents.model.TrackPoint;
+import com.example.driverevents.repository.BookingRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Booking tracks (forwarded points from location_updates), wherever they currently live.
+ * <p>
+ * Once a booking has been closed for {@code locations.archive.after-days}, its points are moved into a
+ * {@link TrackArchiveService} file and removed from location_updates; {@link #loadTrack(long)} merges both
+ * sources, so callers do not need to know whether a track has been archived.
+ */
+@Slf4j
+@Service
+public class BookingTrackService {
+
+    // Same bound ActiveBookingService uses for bookings without an end_at
+    private static final int MAX_TRIP_HOURS = 24;
+
+    static final int MAX_TRACK_POINTS = 10_000;
+
+    // Rows per round trip when a track is streamed out through a cursor
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String TRACK_POINTS = """
+            SELECT timestamp, latitude, longitude
+            FROM location_updates
+            WHERE booking_id = ?
+              AND timestamp IS NOT NULL
+              AND latitude IS NOT NULL
+              AND longitude IS NOT NULL
+            ORDER BY timestamp
+            """;
+
+    private static final RowMapper<TrackPoint> TRACK_POINT = (rs, rowNum) -> new TrackPoint(
+            rs.getObject("timestamp", OffsetDateTime.class).toInstant(),
+            rs.getDouble("latitude"),
+            rs.getDouble("longitude"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TrackArchiveService trackArchiveService;
+    private final TrackSummaryService trackSummaryService;
+    private final int archiveAfterDays;
+    private final int batchSize;
+
+    public BookingTrackService(JdbcTemplate jdbcTemplate,
+                               BookingRepository bookingRepository,
+                               TransactionTemplate transactionTemplate,
+                               TrackArchiveService trackArchiveService,
+                               TrackSummaryService trackSummaryService,
+                               @Value("${locations.archive.after-days:3}") int archiveAfterDays,
+                               @Value("${locations.archive.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.trackArchiveService = trackArchiveService;
+        this.trackSummaryService = trackSummaryService;
+        this.archiveAfterDays = archiveAfterDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return every recorded point of the booking in timestamp order, from the archive and the database
+     */
+    public List<TrackPoint> loadTrack(long bookingId) {
+        List<TrackPoint> points = new ArrayList<>(readArchive(bookingId));
+        points.addAll(loadFromDatabase(bookingId));
+        return merge(points);
+    }
+
+    /**
+     * Hands every recorded point of the booking to {@code action} in timestamp order, without collecting
+     * the database part: archived points first, then location_updates rows read through a cursor.
+     */
+    public void forEachPoint(long bookingId, Consumer<TrackPoint> action) {
+        List<TrackPoint> archived = readArchive(bookingId);
+        archived.forEach(action);
+        Instant lastArchived = archived.isEmpty() ? null : archived.get(archived.size() - 1).timestamp();
+        Set<List<Long>> archivedKeys = new HashSet<>();
+        archived.forEach(p -> archivedKeys.add(key(p)));
+
+        // PostgreSQL only honours the fetch size inside a transaction
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(TRACK_POINTS);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setLong(1, bookingId);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            TrackPoint point = TRACK_POINT.mapRow(rs, rs.getRow());
+            if (lastArchived == null || point.timestamp().isAfter(lastArchived) || !archivedKeys.contains(key(point))) {
+                action.accept(point);
+            }
+        }));
+    }
+
+    /**
+     * The booking's track reduced to at most {@code maxPoints} points that keep its visual shape.
+     */
+    public BookingTrack getTrack(Long bookingId, int maxPoints) {
+        if (maxPoints < 2 || maxPoints > MAX_TRACK_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be between 2 and " + MAX_TRACK_POINTS);
+        }
+        if (!bookingRepository.existsById(bookingId)) {
+            throw new EntityNotFoundException("Booking with id: " + bookingId + " not found");
+        }
+        List<TrackPoint> track = loadTrack(bookingId);
+        return BookingTrack.of(bookingId, track.size(), downsample(track, maxPoints));
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: keeps the first and last point and, from each of {@code maxPoints - 2}
+     * equal buckets in between, the point spanning the largest triangle with the point kept from the
+     * previous bucket and the average of the next one. Turns and detours survive, straight runs collapse.
+     * Coordinates are projected equirectangularly so longitude steps are not overweighted.
+     */
+    static List<TrackPoint> downsample(List<TrackPoint> points, int maxPoints) {
+        int n = points.size();
+        if (n <= maxPoints) {
+            return points;
+        }
+        if (maxPoints == 2) {
+            return List.of(points.get(0), points.get(n - 1));
+        }
+        double xScale = Math.cos(Math.toRadians(points.get(0).latitude()));
+        double bucketSize = (double) (n - 2) / (maxPoints - 2);
+
+        List<TrackPoint> sampled = new ArrayList<>(maxPoints);
+        TrackPoint kept = points.get(0);
+        sampled.add(kept);
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextTo = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+
+            double nextX = 0;
+            double nextY = 0;
+            for (int i = to; i < nextTo; i++) {
+                nextX += points.get(i).longitude() * xScale;
+                nextY += points.get(i).latitude();
+            }
+            nextX /= nextTo - to;
+            nextY /= nextTo - to;
+
+            double keptX = kept.longitude() * xScale;
+            double keptY = kept.latitude();
+            double maxArea = -1;
+            TrackPoint best = points.get(from);
+            for (int i = from; i < to; i++) {
+                TrackPoint p = points.get(i);
+                double area = Math.abs((keptX - nextX) * (p.latitude() - keptY)
+                        - (keptX - p.longitude() * xScale) * (nextY - keptY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = p;
+                }
+            }
+            sampled.add(best);
+            kept = best;
+        }
+        sampled.add(points.get(n - 1));
+        return sampled;
+    }
+
+    @Scheduled(cron = "${locations.archive.cron:0 45 3 * * *}", zone = "Europe/Sofia")
+    public void archiveClosedBookings() {
+        OffsetDateTime cutoff = OffsetDateTime.now(Booking.BOOKING_ZONE).minusDays(archiveAfterDays);
+        List<Long> ids = jdbcTemplate.queryForList("""
+                SELECT b.id FROM bookings b
+                WHERE COALESCE(b.end_at, b.start_at + make_interval(hours => CAST(? AS integer))) < ?
+                  AND EXISTS (SELECT 1 FROM location_updates lu
+                              WHERE lu.booking_id = b.id
+                                AND lu.timestamp IS NOT NULL
+                                AND lu.latitude IS NOT NULL
+                                AND lu.longitude IS NOT NULL)
+                ORDER BY b.id
+                LIMIT ?
+                """, Long.class, MAX_TRIP_HOURS, cutoff, batchSize);
+
+        int archived = 0;
+        for (Long id : ids) {
+            try {
+                archive(id);
+                archived++;
+            } catch (Exception e) {
+                // rows stay in the database; the next run retries
+                log.error("Failed to archive track of booking {}: {}", id, e.getMessage(), e);
+            }
+        }
+        if (!ids.isEmpty()) {
+            log.info("Archived tracks of {} of {} closed bookings", archived, ids.size());
+        }
+    }
+
+    void archive(long bookingId) throws IOException {
+        List<TrackPoint> rows = loadFromDatabase(bookingId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        // points arriving after an earlier run are appended to the existing file
+        List<TrackPoint> previous = trackArchiveService.read(bookingId).orElse(List.of());
+        List<TrackPoint> combined = new ArrayList<>(previous);
+        combined.addAll(rows);
+        List<TrackPoint> track = merge(combined);
+
+        trackArchiveService.write(bookingId, track);
+        int written = trackArchiveService.read(bookingId).map(List::size).orElse(0);
+        if (written != track.size()) {
+            throw new IOException("Archive verification failed: wrote " + track.size() + " points, read " + written);
+        }
+
+        OffsetDateTime last = rows.get(rows.size() - 1).timestamp().atOffset(ZoneOffset.UTC);
+        transactionTemplate.executeWithoutResult(status -> {
+            // the rollup only sees database rows, so a late append must not replace the full summary
+            if (previous.isEmpty()) {
+                trackSummaryService.rollUpBooking(bookingId);
+            }
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM location_updates WHERE booking_id = ? AND timestamp <= ?", bookingId, last);
+            log.debug("Archived {} points of booking {}, removed {} rows", track.size(), bookingId, deleted);
+        });
+    }
+
+    private List<TrackPoint> loadFromDatabase(long bookingId) {
+        return jdbcTemplate.query(TRACK_POINTS, TRACK_POINT, bookingId);
+    }
+
+    private List<TrackPoint> readArchive(long bookingId) {
+        try {
+            return trackArchiveService.read(bookingId).orElse(List.of());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read track archive of booking " + bookingId, e);
+        }
+    }
+
+    // Sorted by time; points present in both sources (an interrupted archive run) are kept once.
+    // Compared at archive precision, since archived coordinates are fixed-point.
+    private static List<TrackPoint> merge(List<TrackPoint> points) {
+        points.sort(Comparator.comparing(TrackPoint::timestamp));
+        Set<List<Long>> seen = new HashSet<>();
+        List<TrackPoint> merged = new ArrayList<>(points.size());
+        for (TrackPoint p : points) {
+            if (seen.add(key(p))) {
+                merged.add(p);
+            }
+        }
+        return merged;
+    }
+
+    private static List<Long> key(TrackPoint p) {
+        return List.of(p.timestamp().toEpochMilli(),
+                TrackArchiveService.toFixedPoint(p.latitude()),
+                TrackArchiveService.toFixedPoint(p.longitude()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.driverevents.service;
+
+/**
+ * Field encoding for the CSV files users download and open in a spreadsheet (exports, import error
+ * reports).
+ * <p>
+ * Text starting with {@code = + - @}, a tab or a carriage return would be run as a formula by Excel and
+ * LibreOffice, so it gets a leading apostrophe. Fields with a comma, quote or line break are quoted.
+ */
+final class CsvCells {
+
+    private CsvCells() {
+    }
+
+    /** Text from users or imported files: neutralised, then quoted where needed. */
+    static String text(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        return quote(value);
+    }
+
+    /** Values we format ourselves (numbers, times); a negative number stays a number. */
+    static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
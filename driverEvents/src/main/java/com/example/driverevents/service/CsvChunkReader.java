@@ -0,0 +1,242 @@
+package com.example.driverevents.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+/**
+ * Reads an RFC 4180 CSV file (comma or semicolon separated, optional UTF-8 BOM) from a memory mapping of
+ * the file, so the content is never copied into a read buffer.
+ * <p>
+ * The file is cut into segments at record boundaries and the segments are parsed in parallel. A newline
+ * is only a boundary when it is outside quotes: each slice counts its quote characters in parallel, the
+ * running parity tells whether a cut point lies inside a quoted field, and the cut moves forward to the
+ * next unquoted newline. Records are handed to the handler in file order, on the calling thread.
+ */
+final class CsvChunkReader {
+
+    // Segments below this size are not worth a task of their own
+    static final int MIN_SEGMENT_BYTES = 4 << 20;
+
+    @FunctionalInterface
+    interface RecordHandler {
+        /**
+         * @param recordNum zero-based record number; the header is record 0. Blank lines are not counted.
+         * @param fields    the record's fields, unquoted
+         */
+        void record(int recordNum, List<String> fields) throws Exception;
+    }
+
+    private CsvChunkReader() {
+    }
+
+    static void read(Path file, RecordHandler handler) throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int segments = (int) Math.max(1, Math.min(size / MIN_SEGMENT_BYTES, cores * 4L));
+            read(channel, size, segments, cores * 2, handler);
+        }
+    }
+
+    static void read(Path file, int segments, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel, channel.size(), segments, segments, handler);
+        }
+    }
+
+    private static void read(FileChannel channel, long size, int segments, int inFlight, RecordHandler handler)
+            throws IOException {
+        if (size == 0) {
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("CSV files over 2 GB are not supported");
+        }
+        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int start = hasBom(data) ? 3 : 0;
+        byte delimiter = detectDelimiter(data, start);
+        int[] bounds = split(data, start, (int) size, segments);
+
+        // a bounded window of parsed segments keeps memory flat on large files
+        Deque<CompletableFuture<List<List<String>>>> window = new ArrayDeque<>();
+        int next = 0;
+        int recordNum = 0;
+        try {
+            while (next < bounds.length - 1 || !window.isEmpty()) {
+                while (next < bounds.length - 1 && window.size() < Math.max(1, inFlight)) {
+                    int from = bounds[next];
+                    int to = bounds[next + 1];
+                    window.add(CompletableFuture.supplyAsync(() -> parse(data, from, to, delimiter)));
+                    next++;
+                }
+                for (List<String> fields : window.poll().join()) {
+                    handler.record(recordNum++, fields);
+                }
+            }
+        } catch (CompletionException e) {
+            throw new IOException("Failed to parse CSV: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            window.forEach(f -> f.cancel(false));
+        }
+    }
+
+    /**
+     * @return segment offsets: {@code bounds[i]} to {@code bounds[i + 1]} holds whole records only
+     */
+    static int[] split(ByteBuffer data, int start, int end, int segments) {
+        int n = Math.max(1, segments);
+        int[] cuts = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            cuts[i] = start + (int) ((long) (end - start) * i / n);
+        }
+        // quote count per slice decides whether each cut point lies inside a quoted field
+        int[] quotes = IntStream.range(0, n).parallel()
+                .map(i -> countQuotes(data, cuts[i], cuts[i + 1]))
+                .toArray();
+
+        int[] bounds = new int[n + 1];
+        int count = 0;
+        bounds[count++] = start;
+        boolean quoted = false;
+        for (int i = 1; i < n; i++) {
+            quoted ^= (quotes[i - 1] & 1) == 1;
+            int cut = nextRecordStart(data, cuts[i], end, quoted);
+            if (cut > bounds[count - 1] && cut < end) {
+                bounds[count++] = cut;
+            }
+        }
+        bounds[count++] = end;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static int countQuotes(ByteBuffer data, int from, int to) {
+        int quotes = 0;
+        for (int i = from; i < to; i++) {
+            if (data.get(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    // escaped quotes ("") flip the state twice, so parity alone is enough
+    private static int nextRecordStart(ByteBuffer data, int from, int end, boolean quoted) {
+        for (int i = from; i < end; i++) {
+            byte b = data.get(i);
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    static List<List<String>> parse(ByteBuffer data, int from, int to, byte delimiter) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        byte[] scratch = new byte[256];
+        int i = from;
+        while (i < to) {
+            int length = 0;
+            if (data.get(i) == '"') {
+                i++;
+                while (i < to) {
+                    byte b = data.get(i);
+                    if (b == '"') {
+                        if (i + 1 < to && data.get(i + 1) == '"') {
+                            b = '"';
+                            i++;
+                        } else {
+                            i++;
+                            break;
+                        }
+                    }
+                    scratch = ensure(scratch, length + 1);
+                    scratch[length++] = b;
+                    i++;
+                }
+            }
+            // unquoted text, or anything stray after a closing quote, runs to the delimiter
+            int text = i;
+            while (i < to) {
+                byte b = data.get(i);
+                if (b == delimiter || b == '\n' || b == '\r') {
+                    break;
+                }
+                i++;
+            }
+            if (i > text) {
+                scratch = ensure(scratch, length + i - text);
+                data.get(text, scratch, length, i - text);
+                length += i - text;
+            }
+            fields.add(new String(scratch, 0, length, StandardCharsets.UTF_8));
+
+            if (i < to && data.get(i) == delimiter) {
+                i++;
+                if (i == to) {
+                    fields.add("");
+                }
+                continue;
+            }
+            if (i < to && data.get(i) == '\r') {
+                i++;
+            }
+            if (i < to && data.get(i) == '\n') {
+                i++;
+            }
+            if (fields.size() > 1 || !fields.get(0).isEmpty()) {
+                records.add(fields);
+            }
+            fields = new ArrayList<>(fields.size());
+        }
+        if (!fields.isEmpty()) {
+            records.add(fields);
+        }
+        return records;
+    }
+
+    private static byte[] ensure(byte[] buffer, int capacity) {
+        return capacity <= buffer.length ? buffer : Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+    }
+
+    private static boolean hasBom(ByteBuffer data) {
+        return data.limit() >= 3
+                && data.get(0) == (byte) 0xEF && data.get(1) == (byte) 0xBB && data.get(2) == (byte) 0xBF;
+    }
+
+    // spreadsheet exports in locales with a decimal comma separate fields with ';'
+    private static byte detectDelimiter(ByteBuffer data, int start) {
+        int commas = 0;
+        int semicolons = 0;
+        for (int i = start; i < data.limit(); i++) {
+            byte b = data.get(i);
+            if (b == '\n') {
+                break;
+            }
+            if (b == ',') {
+                commas++;
+            } else if (b == ';') {
+                semicolons++;
+            }
+        }
+        return semicolons > commas ? (byte) ';' : (byte) ',';
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.driverevents.service;
 
-import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingWindow;
 import com.example.driverevents.model.LocationUpdateFromDrivers;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class  DriverLocationSendingService {
@@ -21,11 +23,11 @@ public class  DriverLocationSendingService {
     public void handleDriverLocation(DriverLocationListener.DriverLocationCreatedEvent event) {
 
         LocationUpdateFromDrivers location = event.location();
-        List<Booking> bookings = activeBookingService.getActiveBookingsForDriver(location.getEmail());
-        System.out.println("ACTIVE BOOKINGS FOR : " + location.getEmail() + " are : " + bookings);
+        List<BookingWindow> bookings = activeBookingService.getActiveBookingsForDriver(location.getEmail());
+        log.debug("Active bookings for {}: {}", location.getEmail(), bookings.size());
 
-        for (Booking b : bookings) {
-            System.out.println("TIMESTAMP for booking " + b + " is: " + location.getTimestamp());
+        for (BookingWindow b : bookings) {
+            log.debug("Forwarding location at {} for booking {}", location.getTimestamp(), b.bookingNumber());
             externalApiService.sendLocationUpdate(b, location);
         }
         location.setSentToApi(true);
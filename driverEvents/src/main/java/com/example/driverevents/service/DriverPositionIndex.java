@@ -0,0 +1,251 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.DriverSnapshot;
+import com.example.driverevents.model.LocationUpdateFromDrivers;
+import com.example.driverevents.model.NearbyDriver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last known position of every driver, bucketed into a uniform latitude/longitude grid so that
+ * "drivers near a point" only looks at the cells around that point.
+ * <p>
+ * Fed by {@link LocationTrackingService} for every processed location. Driver status and vehicle capacity
+ * are copied from the driver at that time; driver and vehicle writes evict the driver cache, so changes
+ * show up with the driver's next location. Positions older than {@code drivers.nearby.max-age-minutes}
+ * are ignored and swept.
+ */
+@Slf4j
+@Component
+public class DriverPositionIndex {
+
+    // 0.02 degrees is ~2.2 km north-south and ~1.6 km east-west at Sofia's latitude
+    static final double CELL_DEGREES = 0.02;
+    static final double MAX_RADIUS_METERS = 100_000;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private final Duration maxAge;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public DriverPositionIndex(@Value("${drivers.nearby.max-age-minutes:15}") long maxAgeMinutes) {
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    }
+
+    public void update(Driver driver, double latitude, double longitude, LocalDateTime timestamp) {
+        update(DriverSnapshot.of(driver), latitude, longitude, timestamp);
+    }
+
+    public synchronized void update(DriverSnapshot driver, double latitude, double longitude, LocalDateTime timestamp) {
+        Entry previous = entries.get(driver.id());
+        if (previous != null && previous.timestamp().isAfter(timestamp)) {
+            return; // late, out-of-order point
+        }
+        Entry entry = new Entry(driver.id(), driver.name(), driver.email(), driver.status(), driver.active(),
+                driver.vehicleId(), driver.vehicleRegistration(), driver.vehicleCapacity(),
+                latitude, longitude, timestamp, cellOf(latitude, longitude));
+
+        // the entry is replaced before it moves cells, so a concurrent reader never sees a stale cell's point
+        entries.put(entry.driverId(), entry);
+        if (previous != null && previous.cell() != entry.cell()) {
+            removeFromCell(previous.cell(), entry.driverId());
+        }
+        cells.computeIfAbsent(entry.cell(), c -> ConcurrentHashMap.newKeySet()).add(entry.driverId());
+    }
+
+    /**
+     * Seeds the index after a restart with each driver's latest recent point, so dispatch does not have
+     * to wait for every driver to report again.
+     */
+    public void load(List<Driver> drivers, List<LocationUpdateFromDrivers> latestLocations) {
+        Map<String, Driver> byEmail = new HashMap<>();
+        drivers.forEach(d -> byEmail.put(normalize(d.getEmail()), d));
+        int loaded = 0;
+        for (LocationUpdateFromDrivers location : latestLocations) {
+            Driver driver = byEmail.get(normalize(location.getEmail()));
+            if (driver != null && location.getLatitude() != null && location.getLongitude() != null) {
+                update(driver, location.getLatitude(), location.getLongitude(), location.getTimestamp());
+                loaded++;
+            }
+        }
+        log.info("Loaded {} recent driver positions into the position index", loaded);
+    }
+
+    public LocalDateTime freshAfter() {
+        return LocalDateTime.now(Booking.BOOKING_ZONE).minus(maxAge);
+    }
+
+    public synchronized void remove(Long driverId) {
+        Entry previous = entries.remove(driverId);
+        if (previous != null) {
+            removeFromCell(previous.cell(), driverId);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Up to {@code limit} matching drivers closest to the point, no further than {@code radiusMeters}.
+     * The grid is searched in rings of cells around the point and stops once no unvisited cell can hold
+     * a closer driver than the ones already found.
+     *
+     * @param status      required driver status, or null for any
+     * @param minCapacity required vehicle capacity, or null to include drivers without a vehicle
+     */
+    public List<NearbyDriver> nearest(double latitude, double longitude, int limit, double radiusMeters,
+                                      Driver.DriverStatus status, Integer minCapacity) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (radiusMeters <= 0 || radiusMeters > MAX_RADIUS_METERS) {
+            throw new IllegalArgumentException("radius must be between 0 and " + (long) MAX_RADIUS_METERS + " m");
+        }
+
+        LocalDateTime freshAfter = freshAfter();
+        // cells narrow towards the poles; the narrowest one within the radius bounds how far each ring reaches
+        // (clamped so a polar query cannot expand to millions of cells)
+        double farthestLatitude = Math.min(80, Math.abs(latitude) + radiusMeters / METERS_PER_DEGREE);
+        double ringMeters = CELL_DEGREES * METERS_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+        int maxRing = (int) Math.ceil(radiusMeters / ringMeters) + 1;
+
+        // max-heap on distance holding the best `limit` candidates so far
+        PriorityQueue<NearbyDriver> best = new PriorityQueue<>(
+                Comparator.comparingDouble(NearbyDriver::distanceMeters).reversed());
+        int row = cellRow(latitude);
+        int column = cellColumn(longitude);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                boolean edgeRow = r == row - ring || r == row + ring;
+                for (int c = column - ring; c <= column + ring; c += edgeRow || ring == 0 ? 1 : 2 * ring) {
+                    collect(cells.get(cellKey(r, c)), latitude, longitude, radiusMeters, status, minCapacity,
+                            freshAfter, limit, best);
+                }
+            }
+            // every point outside rings 0..ring is at least ring * ringMeters away
+            if (best.size() == limit && best.peek().distanceMeters() <= ring * ringMeters) {
+                break;
+            }
+        }
+
+        List<NearbyDriver> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyDriver::distanceMeters));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${drivers.nearby.sweep-interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime freshAfter = freshAfter();
+        int before = entries.size();
+        entries.values().stream()
+                .filter(e -> e.timestamp().isBefore(freshAfter))
+                .map(Entry::driverId)
+                .toList()
+                .forEach(this::removeIfStale);
+        if (entries.size() < before) {
+            log.debug("Dropped {} stale driver positions", before - entries.size());
+        }
+    }
+
+    private synchronized void removeIfStale(Long driverId) {
+        Entry entry = entries.get(driverId);
+        if (entry != null && entry.timestamp().isBefore(freshAfter())) {
+            remove(driverId);
+        }
+    }
+
+    private void collect(Set<Long> cell, double latitude, double longitude, double radiusMeters,
+                         Driver.DriverStatus status, Integer minCapacity, LocalDateTime freshAfter,
+                         int limit, PriorityQueue<NearbyDriver> best) {
+        if (cell == null) {
+            return;
+        }
+        for (Long driverId : cell) {
+            Entry e = entries.get(driverId);
+            if (e == null
+                    || !e.active()
+                    || e.timestamp().isBefore(freshAfter)
+                    || (status != null && e.status() != status)
+                    || (minCapacity != null && (e.capacity() == null || e.capacity() < minCapacity))) {
+                continue;
+            }
+            double distance = distanceMeters(latitude, longitude, e.latitude(), e.longitude());
+            if (distance > radiusMeters) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(e.toNearby(distance));
+            } else if (distance < best.peek().distanceMeters()) {
+                best.poll();
+                best.add(e.toNearby(distance));
+            }
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void removeFromCell(long cell, Long driverId) {
+        cells.computeIfPresent(cell, (key, ids) -> {
+            ids.remove(driverId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return cellKey(cellRow(latitude), cellColumn(longitude));
+    }
+
+    private static int cellRow(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int cellColumn(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private record Entry(Long driverId, String name, String email, Driver.DriverStatus status, boolean active,
+                         Long vehicleId, String vehicleRegistration, Integer capacity,
+                         double latitude, double longitude, LocalDateTime timestamp, long cell) {
+
+        NearbyDriver toNearby(double distanceMeters) {
+            return new NearbyDriver(driverId, name, email, status, vehicleId, vehicleRegistration, capacity,
+                    latitude, longitude, timestamp, distanceMeters);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.driverevents.service;
 
-import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingWindow;
 import com.example.driverevents.model.ExternalBookingDTO;
 import com.example.driverevents.model.LocationUpdateFromDrivers;
 import com.example.driverevents.repository.BookingRepository;
@@ -167,7 +167,7 @@ public class ExternalApiService {
         }
     }
 
-    public void sendLocationUpdate(Booking booking, LocationUpdateFromDrivers location) {
+    public void sendLocationUpdate(BookingWindow booking, LocationUpdateFromDrivers location) {
 
         saveSentLocationsToDbService.saveLocationUpdate(booking, location);
 
@@ -176,16 +176,16 @@ public class ExternalApiService {
             String url = String.format(
                     "%s/bookings/%s/vehicles/%s/location",
                     externalApiBaseUrl,
-                    booking.getBookingNumber(),
-                    booking.getVehicle().getRegistrationNumber()
+                    booking.bookingNumber(),
+                    booking.vehicleRegistration()
             );
 
             // 2) Build payload
             Map<String, Object> payload = buildLocationPayload(location);
 
             log.debug("Sending location update - Booking: {} - Vehicle: {} - Payload: {}",
-                    booking.getBookingNumber(),
-                    booking.getVehicle().getRegistrationNumber(),
+                    booking.bookingNumber(),
+                    booking.vehicleRegistration(),
                     payload);
 
             // 3) Make request
@@ -196,20 +196,20 @@ public class ExternalApiService {
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Location sent successfully - Booking: {} - Vehicle: {}",
-                        booking.getBookingNumber(),
-                        booking.getVehicle().getRegistrationNumber());
+                        booking.bookingNumber(),
+                        booking.vehicleRegistration());
 
                 // Mark as sent in database
                 sentLocationsToExternalApiRepository.markAsSent(location.getId());
             } else {
                 log.warn("Unexpected status sending location - Booking: {} - Status: {}",
-                        booking.getBookingNumber(),
+                        booking.bookingNumber(),
                         response.getStatusCode());
             }
 
         } catch (HttpClientErrorException e) {
             log.error("Client error sending location - Booking: {} - Status: {} - Response: {}",
-                    booking.getBookingNumber(),
+                    booking.bookingNumber(),
                     e.getStatusCode(),
                     e.getResponseBodyAsString());
 
@@ -219,7 +219,7 @@ public class ExternalApiService {
 
         } catch (Exception e) {
             log.error("Failed to send location update - Booking: {} - Error: {}",
-                    booking.getBookingNumber(),
+                    booking.bookingNumber(),
                     e.getMessage(),
                     e);
         }
@@ -2,137 +2,320 @@ package com.example.driverevents.service;
 
 import com.example.driverevents.model.Booking;
 import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.model.ImportRowError;
 import com.example.driverevents.model.Vehicle;
-import com.example.driverevents.repository.BookingRepository;
 import com.example.driverevents.repository.DriverRepository;
+import com.example.driverevents.service.BookingImportService.ImportRow;
+import com.example.driverevents.service.XlsxRowReader.CellKind;
+import com.example.driverevents.service.XlsxRowReader.SheetCell;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileProcessingService {
-    private final BookingService bookingService;
+
+    // Rows per stage round: one driver lookup, one existing-booking lookup and one upsert batch
+    static final int IMPORT_CHUNK_SIZE = 1000;
+
+    private final BookingImportService bookingImportService;
     private final DriverRepository driverRepository;
-    private final BookingRepository bookingRepository;
+    private final Validator validator;
+
+    /**
+     * Receives an import's progress while it runs, on the importing thread.
+     */
+    public interface ImportProgress {
 
-    public List<Booking> processExcelFile(MultipartFile file) throws IOException {
-        List<Booking> bookings = new ArrayList<>();
+        void rowsParsed(int rows);
+
+        /**
+         * Counts of one written chunk, with every row of it that was rejected.
+         */
+        void chunkWritten(ImportResult chunk);
+    }
+
+    /**
+     * Imports the bookings of the first sheet. The file is read row by row; every
+     * {@link #IMPORT_CHUNK_SIZE} parsed rows, drivers are resolved in one query and the bookings are
+     * written as one batched upsert, so heap use and round trips do not grow per row.
+     *
+     * @return created/updated/skipped totals; rejected rows are only reported through {@code progress}
+     */
+    public ImportResult processExcelFile(Path file, ImportProgress progress) throws IOException {
+        BookingImport run = new BookingImport(progress);
+        XlsxRowReader.read(file, new SheetRows(run));
+        run.flush();
+        return run.result;
+    }
+
+    /**
+     * Imports a CSV export with the same header names as the sheet. Segments of the file are parsed in
+     * parallel ({@link CsvChunkReader}); records then go through the same chunked driver lookup, validation
+     * and upsert as {@link #processExcelFile}. Error rows are CSV record numbers, the header being row 1.
+     */
+    public ImportResult processCsvFile(Path file, ImportProgress progress) throws IOException {
+        BookingImport run = new BookingImport(progress);
+        CsvChunkReader.read(file, new CsvRecords(run));
+        run.flush();
+        return run.result;
+    }
 
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
-            // map with header names
-            Map<String, Integer> columnIndexMap = new HashMap<>();
+    private final class SheetRows implements XlsxRowReader.RowHandler {
 
+        // map with header names
+        private final Map<String, Integer> columnIndexMap = new HashMap<>();
+        private final BookingImport run;
+        private boolean headerRead;
+
+        SheetRows(BookingImport run) {
+            this.run = run;
+        }
+
+        @Override
+        public boolean row(int rowNum, Map<Integer, SheetCell> cells) {
             // Read header and save names in map above
-            Row headerRow = rows.next();
-            for (Cell cell : headerRow) {
-                String header = cell.getStringCellValue().trim().toLowerCase();
-                columnIndexMap.put(header, cell.getColumnIndex());
+            if (!headerRead) {
+                cells.forEach((column, cell) -> {
+                    if (cell.kind() == CellKind.STRING) {
+                        columnIndexMap.put(cell.text().trim().toLowerCase(), column);
+                    }
+                });
+                headerRead = true;
+                return true;
             }
 
-            while (rows.hasNext()) {
+            String guard = getCellValueAsString(cells.get(0));
+            if (guard.isBlank()) {
+                return false;
+            }
 
-                Row row = rows.next();
-                String guard = getCellValueAsString(row.getCell(0));
-                if (guard.isBlank()) {
-                    break;
+            run.add(rowNum + 1, guard.trim(), () -> toBooking(cells));
+            return true;
+        }
+
+        // Stage 1: cell values only; the driver is resolved for the whole chunk in flush()
+        private Booking toBooking(Map<Integer, SheetCell> row) {
+            Booking booking = new Booking();
+
+            // column names are already set in the Map above
+            booking.setBookingNumber(getCellValueAsString(cell(row, "booking number")).trim());
+            booking.setStartLocation(getCellValueAsString(cell(row, "from")).toUpperCase().trim());
+            booking.setDestination(getCellValueAsString(cell(row, "destination")).toUpperCase().trim());
+            booking.setArrivalOrDeparture(getCellValueAsString(cell(row, "type")).toUpperCase().trim());
+            booking.setPRVorShuttle(getCellValueAsString(cell(row, "transp")).toUpperCase().trim());
+            SheetCell dateCell = cell(row, "date");
+            SheetCell timeCell = cell(row, "start time");
+            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+            LocalTime startTime = extractLocalTime(timeCell, timeFormatter);
+            booking.setStartTime(startTime);
+            booking.setBookingDate(getStringCellValue(dateCell).trim());
+
+            String driverName = (getCellValueAsString(cell(row, "driver")));
+            booking.setDriverName(driverName.trim().toLowerCase());
+            booking.setSyncedWithApi(false);
+            return booking;
+        }
+
+        private SheetCell cell(Map<Integer, SheetCell> row, String header) {
+            Integer column = columnIndexMap.get(header);
+            if (column == null) {
+                throw new IllegalArgumentException("Missing column '" + header + "'");
+            }
+            return row.get(column);
+        }
+    }
+
+    private static final class CsvRecords implements CsvChunkReader.RecordHandler {
+
+        // exports often drop the leading zero of the hour or add seconds
+        private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm[:ss]");
+
+        private final Map<String, Integer> columnIndexMap = new HashMap<>();
+        private final BookingImport run;
+
+        CsvRecords(BookingImport run) {
+            this.run = run;
+        }
+
+        @Override
+        public void record(int recordNum, List<String> fields) {
+            if (recordNum == 0) {
+                for (int i = 0; i < fields.size(); i++) {
+                    columnIndexMap.putIfAbsent(fields.get(i).trim().toLowerCase(), i);
                 }
+                return;
+            }
 
-                try {
-                    Booking booking = new Booking();
-//                    String bookingNumber = getCellValueAsString(row.getCell(columnIndexMap.get("booking number"))).trim();
+            // unlike a sheet, a CSV has no trailing empty rows to stop at; records without a number are skipped
+            Integer numberColumn = columnIndexMap.get("booking number");
+            String bookingNumber = numberColumn == null ? "" : field(fields, numberColumn).trim();
+            if (numberColumn != null && bookingNumber.isEmpty()) {
+                return;
+            }
 
-                    // column names are already set in the Map above
-                    booking.setBookingNumber(getCellValueAsString(row.getCell(columnIndexMap.get("booking number"))).trim());
+            run.add(recordNum + 1, bookingNumber, () -> toBooking(fields));
+        }
 
-                    if (booking.getBookingNumber() == null) {
-                        continue;
-                    }
+        private Booking toBooking(List<String> fields) {
+            Booking booking = new Booking();
+            booking.setBookingNumber(value(fields, "booking number").trim());
+            booking.setStartLocation(value(fields, "from").toUpperCase().trim());
+            booking.setDestination(value(fields, "destination").toUpperCase().trim());
+            booking.setArrivalOrDeparture(value(fields, "type").toUpperCase().trim());
+            booking.setPRVorShuttle(value(fields, "transp").toUpperCase().trim());
+
+            String time = value(fields, "start time").trim();
+            booking.setStartTime(time.isEmpty() ? null : LocalTime.parse(time, TIME_FORMAT));
+            String date = value(fields, "date").trim();
+            if (date.isEmpty()) {
+                throw new IllegalArgumentException("Missing date");
+            }
+            booking.setBookingDate(date);
+
+            booking.setDriverName(value(fields, "driver").trim().toLowerCase());
+            booking.setSyncedWithApi(false);
+            return booking;
+        }
+
+        private String value(List<String> fields, String header) {
+            Integer column = columnIndexMap.get(header);
+            if (column == null) {
+                throw new IllegalArgumentException("Missing column '" + header + "'");
+            }
+            return field(fields, column);
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column < fields.size() ? fields.get(column) : "";
+        }
+    }
+
+    // Stages 2 and 3, shared by both file formats
+    private final class BookingImport {
+
+        private final List<ImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final ImportProgress progress;
+        private int parsed;
+        private ImportResult result = ImportResult.EMPTY;
+
+        BookingImport(ImportProgress progress) {
+            this.progress = progress;
+        }
+
+        void add(int row, String bookingNumber, Supplier<Booking> parse) {
+            try {
+                chunk.add(new ImportRow(row, parse.get()));
+            } catch (Exception e) {
+                errors.add(new ImportRowError(row, bookingNumber, e.getMessage()));
+            }
+            parsed++;
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            progress.rowsParsed(parsed);
+            parsed = 0;
+            List<ImportRow> valid = new ArrayList<>(chunk.size());
+            if (!chunk.isEmpty()) {
+                // Stage 2: every driver named in the chunk in one query
+                Map<String, Driver> drivers = new HashMap<>();
+                Set<String> names = new HashSet<>();
+                chunk.forEach(r -> names.add(r.booking().getDriverName()));
+                names.remove("");
+                if (!names.isEmpty()) {
+                    driverRepository.findByLowerNameIn(names)
+                            .forEach(d -> drivers.putIfAbsent(d.getName().toLowerCase(), d));
+                }
 
-                    booking.setStartLocation(getCellValueAsString(row.getCell(columnIndexMap.get("from"))).toUpperCase().trim());
-                    booking.setDestination(getCellValueAsString(row.getCell(columnIndexMap.get("destination"))).toUpperCase().trim());
-                    booking.setArrivalOrDeparture(getCellValueAsString(row.getCell(columnIndexMap.get("type"))).toUpperCase().trim());
-                    booking.setPRVorShuttle(getCellValueAsString(row.getCell(columnIndexMap.get("transp"))).toUpperCase().trim());
-                    Cell dateCell = row.getCell(columnIndexMap.get("date"));
-                    Cell timeCell = row.getCell(columnIndexMap.get("start time"));
-                    DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-                    LocalTime startTime = extractLocalTime(timeCell, timeFormatter);
-                    booking.setStartTime(startTime);
-                    booking.setBookingDate(dateCell.getStringCellValue().trim());
-
-                    String driverName = (getCellValueAsString(row.getCell(columnIndexMap.get("driver"))));
-                    driverName = driverName.trim().toLowerCase();
-                    Optional<Driver> matchedDriverOpt = driverRepository.findByNameIgnoreCase(driverName);
-                    if (matchedDriverOpt.isPresent()) {
-                        Driver matchedDriver = matchedDriverOpt.get();
+                for (ImportRow r : chunk) {
+                    Booking booking = r.booking();
+                    Driver matchedDriver = drivers.get(booking.getDriverName());
+                    if (matchedDriver != null) {
                         booking.setDriver(matchedDriver);
                         booking.setDriverName(matchedDriver.getName());
                         Vehicle vehicle = matchedDriver.getVehicles();
                         booking.setVehicle(vehicle);
-                        booking.setVehicleNumber(vehicle.getRegistrationNumber());
-                    } else {
-                        booking.setDriver(null);
-                        booking.setDriverName(driverName);
+                        booking.setVehicleNumber(vehicle == null ? null : vehicle.getRegistrationNumber());
                     }
-                    booking.setSyncedWithApi(false);
-
-                    Optional<Booking> existingBookingOpt = bookingRepository.findByBookingNumber(booking.getBookingNumber());
-
-                    if (existingBookingOpt.isPresent()) {
-                        Booking updatedBooking = bookingService.updateBooking(existingBookingOpt.get().getId(), booking);
-                        bookings.add(bookingRepository.save(updatedBooking));
+                    Set<ConstraintViolation<Booking>> violations = validator.validate(booking);
+                    if (violations.isEmpty()) {
+                        valid.add(r);
                     } else {
-                        bookings.add(bookingService.createBooking(booking));
+                        errors.add(new ImportRowError(r.row(), booking.getBookingNumber(), violations.stream()
+                                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                                .sorted()
+                                .collect(Collectors.joining(", "))));
                     }
-//                    bookings.add(bookingService.createBooking(booking));
-                } catch (Exception e) {
-//                    System.out.println("❌ Crash at row " + row.getRowNum() + ": " + e.getMessage());
-                    e.printStackTrace();
-                    continue;
                 }
+                chunk.clear();
             }
+
+            // Stage 3: existing bookings in one query, then one batched upsert
+            ImportResult written = valid.isEmpty() ? ImportResult.EMPTY : bookingImportService.upsert(valid);
+            errors.addAll(written.errors());
+            errors.sort(Comparator.comparingInt(ImportRowError::row));
+            progress.chunkWritten(new ImportResult(written.created(), written.updated(), written.skipped(),
+                    List.copyOf(errors)));
+            result = result.plus(new ImportResult(written.created(), written.updated(), written.skipped(), List.of()));
+            errors.clear();
         }
-        return bookings;
     }
 
-
-
-    private String getCellValueAsString(Cell cell) {
+    private String getCellValueAsString(SheetCell cell) {
         if (cell == null) {
             return "";
         }
 
-        switch (cell.getCellType()) {
+        switch (cell.kind()) {
             case STRING:
-                return cell.getStringCellValue();
+                return cell.text();
             case NUMERIC:
-                return String.valueOf((long) cell.getNumericCellValue());
+                return String.valueOf((long) cell.number());
             default:
                 return "";
         }
     }
 
-    private LocalTime extractLocalTime(Cell timeCell, DateTimeFormatter timeFormatter) {
+    // Cell.getStringCellValue(): blank for a missing cell, only numbers are rejected
+    private String getStringCellValue(SheetCell cell) {
+        if (cell == null) {
+            throw new IllegalArgumentException("Missing date");
+        }
+        if (cell.kind() == CellKind.NUMERIC) {
+            throw new IllegalStateException("Cannot get a STRING value from a NUMERIC cell");
+        }
+        return cell.text();
+    }
+
+    private LocalTime extractLocalTime(SheetCell timeCell, DateTimeFormatter timeFormatter) {
         LocalTime timePart;
 
         if (timeCell != null) {
-            switch (timeCell.getCellType()) {
+            switch (timeCell.kind()) {
                 case STRING:
-                    timePart = LocalTime.parse(timeCell.getStringCellValue().trim(), timeFormatter);
+                    timePart = LocalTime.parse(timeCell.text().trim(), timeFormatter);
                     break;
                 case NUMERIC:
-                    if (DateUtil.isCellDateFormatted(timeCell)) {
-                        timePart = timeCell.getLocalDateTimeCellValue().toLocalTime();
+                    if (timeCell.dateFormatted()) {
+                        timePart = timeCell.timeValue();
                     } else {
-                        timePart = LocalTime.parse(String.valueOf(timeCell.getNumericCellValue()), timeFormatter);
+                        timePart = LocalTime.parse(String.valueOf(timeCell.number()), timeFormatter);
                     }
                     break;
                 default:
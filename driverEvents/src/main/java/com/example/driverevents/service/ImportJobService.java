@@ -0,0 +1,260 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.ImportJobStatus;
+import com.example.driverevents.model.ImportJobStatus.State;
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.model.ImportRowError;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs booking uploads as background jobs. At most {@code imports.parallelism} files are imported at
+ * once and up to {@code imports.queue-capacity} more wait; beyond that uploads are refused.
+ * <p>
+ * Rejected rows are appended to a per-job CSV report as they happen. Finished jobs and their reports
+ * are kept for {@code imports.retention-minutes}.
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+
+    private final FileProcessingService fileProcessingService;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(FileProcessingService fileProcessingService,
+                            @Value("${imports.parallelism:2}") int parallelism,
+                            @Value("${imports.queue-capacity:20}") int queueCapacity,
+                            @Value("${imports.retention-minutes:60}") long retentionMinutes) {
+        this.fileProcessingService = fileProcessingService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "booking-import-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Copies the upload (the multipart file is gone once the request ends) and queues its import.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when the queue is full
+     */
+    public ImportJobStatus submit(MultipartFile file) throws IOException {
+        // both readers need random access (zip entries, memory mapping), so the upload goes to a file anyway
+        boolean csv = isCsv(file);
+        Path upload = Files.createTempFile("bookings-", csv ? ".csv" : ".xlsx");
+        try {
+            file.transferTo(upload);
+            ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), upload, csv);
+            jobs.put(job.id, job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RuntimeException e) {
+                jobs.remove(job.id);
+                job.deleteReport();
+                throw e;
+            }
+            return job.status();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+    }
+
+    public ImportJobStatus getStatus(String jobId) {
+        return job(jobId).status();
+    }
+
+    public List<ImportJobStatus> getJobs() {
+        return jobs.values().stream()
+                .map(ImportJob::status)
+                .sorted(Comparator.comparing(ImportJobStatus::submittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * @return the CSV of rejected rows so far (header only while none failed)
+     */
+    public Path getErrorReport(String jobId) {
+        return job(jobId).flushReport();
+    }
+
+    @Scheduled(fixedDelayString = "${imports.cleanup-interval-ms:600000}")
+    public void removeExpiredJobs() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            ImportJobStatus status = job.status();
+            if (status.isFinished() && status.finishedAt().isBefore(cutoff)) {
+                job.deleteReport();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static boolean isCsv(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        return (name != null && name.toLowerCase(Locale.ROOT).endsWith(".csv"))
+                || "text/csv".equalsIgnoreCase(file.getContentType());
+    }
+
+    private ImportJob job(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Import job " + jobId + " not found");
+        }
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        job.start();
+        try {
+            ImportResult result = job.csv
+                    ? fileProcessingService.processCsvFile(job.upload, job)
+                    : fileProcessingService.processExcelFile(job.upload, job);
+            job.finish(State.COMPLETED, null);
+            log.info("Import {} ({}) finished: {} created, {} updated, {} skipped, {} failed", job.id,
+                    job.fileName, result.created(), result.updated(), result.skipped(), job.failed.get());
+        } catch (Exception e) {
+            log.error("Import {} ({}) failed: {}", job.id, job.fileName, e.getMessage(), e);
+            job.finish(State.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(job.upload);
+            } catch (IOException e) {
+                log.warn("Could not delete upload {}: {}", job.upload, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(ImportJob::deleteReport);
+    }
+
+    private static final class ImportJob implements FileProcessingService.ImportProgress {
+
+        private final String id;
+        private final String fileName;
+        private final Path upload;
+        private final boolean csv;
+        private final Path reportFile;
+        private final BufferedWriter report;
+        private final OffsetDateTime submittedAt = OffsetDateTime.now();
+
+        private final AtomicLong parsed = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        private volatile State state = State.QUEUED;
+        private volatile OffsetDateTime startedAt;
+        private volatile OffsetDateTime finishedAt;
+        private volatile String message;
+
+        ImportJob(String id, String fileName, Path upload, boolean csv) throws IOException {
+            this.id = id;
+            this.fileName = fileName;
+            this.upload = upload;
+            this.csv = csv;
+            this.reportFile = Files.createTempFile("import-errors-", ".csv");
+            this.report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+            report.write("row,booking_number,error\n");
+        }
+
+        @Override
+        public void rowsParsed(int rows) {
+            parsed.addAndGet(rows);
+        }
+
+        @Override
+        public synchronized void chunkWritten(ImportResult chunk) {
+            inserted.addAndGet(chunk.created());
+            updated.addAndGet(chunk.updated());
+            skipped.addAndGet(chunk.skipped());
+            failed.addAndGet(chunk.errors().size());
+            try {
+                for (ImportRowError error : chunk.errors()) {
+                    // keys and messages echo the uploaded file, so they are defused like export text
+                    report.write(error.row() + "," + CsvCells.text(error.key()) + ","
+                            + CsvCells.text(error.message()) + "\n");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void start() {
+            startedAt = OffsetDateTime.now();
+            state = State.RUNNING;
+        }
+
+        synchronized void finish(State finalState, String failure) {
+            try {
+                report.close();
+            } catch (IOException e) {
+                log.warn("Could not write error report of import {}: {}", id, e.getMessage());
+            }
+            message = failure;
+            finishedAt = OffsetDateTime.now();
+            state = finalState;
+        }
+
+        synchronized Path flushReport() {
+            if (state != State.COMPLETED && state != State.FAILED) {
+                try {
+                    report.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return reportFile;
+        }
+
+        synchronized void deleteReport() {
+            try {
+                report.close();
+                Files.deleteIfExists(reportFile);
+            } catch (IOException e) {
+                log.warn("Could not delete error report of import {}: {}", id, e.getMessage());
+            }
+        }
+
+        ImportJobStatus status() {
+            return new ImportJobStatus(id, fileName, state, parsed.get(), inserted.get(), updated.get(),
+                    skipped.get(), failed.get(), submittedAt, startedAt, finishedAt, message);
+        }
+    }
+}
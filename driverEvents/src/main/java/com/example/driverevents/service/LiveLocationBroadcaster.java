@@ -0,0 +1,84 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.LiveLocation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes processed driver positions to the browsers connected to this instance: the per-driver and
+ * per-booking topics that have subscribers, and the aggregated frames.
+ * <p>
+ * The simple broker only reaches this JVM's sessions. With {@code websocket.cluster.mode=postgres} each
+ * position is also handed to {@link PostgresLocationBus}, which delivers it on the other instances.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveLocationBroadcaster {
+
+    private final SimpMessagingTemplate websocket;
+    private final LocationSubscriptionRegistry subscriptions;
+    private final LocationFrameService locationFrameService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<PostgresLocationBus> clusterBus;
+
+    public void publish(LiveLocation location) {
+        deliver(location);
+        PostgresLocationBus bus = clusterBus.getIfAvailable();
+        if (bus != null) {
+            bus.publish(location);
+        }
+    }
+
+    // One topic per driver and per active booking; only topics with live subscriptions get the update
+    void deliver(LiveLocation location) {
+        if (location.latitude() != null && location.longitude() != null && location.timestamp() != null) {
+            locationFrameService.update(location.driverId(), location.latitude(), location.longitude(),
+                    location.timestamp());
+        }
+        try {
+            List<String> topics = new ArrayList<>(2 + location.bookingIds().size());
+            addIfSubscribed(topics, LocationSubscriptionRegistry.driverTopic(location.driverId()));
+            for (Long bookingId : location.bookingIds()) {
+                addIfSubscribed(topics, LocationSubscriptionRegistry.bookingTopic(bookingId));
+            }
+            addIfSubscribed(topics, LocationSubscriptionRegistry.ALL_DRIVERS_TOPIC);
+            if (topics.isEmpty()) {
+                return;
+            }
+
+            Map<String, Object> locationData = new HashMap<>();
+            locationData.put("driverId", location.driverId());
+            locationData.put("email", location.email());
+            locationData.put("latitude", location.latitude());
+            locationData.put("longitude", location.longitude());
+            locationData.put("timestamp", location.timestamp().toString());
+
+            // serialized once, the same JSON goes to every topic
+            String payload = objectMapper.writeValueAsString(locationData);
+            for (String topic : topics) {
+                websocket.convertAndSend(topic, payload);
+            }
+            log.debug("Sent location of driver {} to {}", location.email(), topics);
+
+        } catch (Exception e) {
+            log.error("Failed to send location to WebSocket for driver {}: {}",
+                    location.email(), e.getMessage(), e);
+        }
+    }
+
+    private void addIfSubscribed(List<String> topics, String topic) {
+        if (subscriptions.hasSubscribers(topic)) {
+            topics.add(topic);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.LocationFrame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated live-location feed on {@link #FRAMES_TOPIC}: one {@link LocationFrame} per tick with the
+ * drivers that moved since the previous tick, instead of one message per position.
+ * <p>
+ * Opt-in: frames are only built while somebody subscribes to the topic. A client gets its first, full
+ * frame by subscribing to {@code /app/location/frames}; a key frame also goes to the topic every
+ * {@code locations.frames.keyframe-seconds}, so a client that missed a frame catches up. Drivers whose
+ * last position is older than {@code locations.frames.max-age-minutes} are dropped and listed as removed
+ * in the next frame.
+ */
+@Slf4j
+@Service
+public class LocationFrameService {
+
+    public static final String FRAMES_TOPIC = "/topic/location/frames";
+
+    private final SimpMessagingTemplate websocket;
+    private final LocationSubscriptionRegistry subscriptions;
+    private final long keyFrameMillis;
+    private final long maxAgeMillis;
+
+    // driver id -> {latitude * 1e5, longitude * 1e5, epoch millis}
+    private final Map<Long, long[]> positions = new ConcurrentHashMap<>();
+    private final Set<Long> moved = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private long lastKeyFrame;
+
+    public LocationFrameService(SimpMessagingTemplate websocket, LocationSubscriptionRegistry subscriptions,
+                                @Value("${locations.frames.keyframe-seconds:30}") long keyFrameSeconds,
+                                @Value("${locations.frames.max-age-minutes:15}") long maxAgeMinutes) {
+        this.websocket = websocket;
+        this.subscriptions = subscriptions;
+        this.keyFrameMillis = keyFrameSeconds * 1000;
+        this.maxAgeMillis = maxAgeMinutes * 60_000;
+    }
+
+    public void update(long driverId, double latitude, double longitude, LocalDateTime timestamp) {
+        long[] position = {
+                Math.round(latitude * LocationFrame.COORDINATE_SCALE),
+                Math.round(longitude * LocationFrame.COORDINATE_SCALE),
+                timestamp.atZone(Booking.BOOKING_ZONE).toInstant().toEpochMilli()
+        };
+        long[] previous = positions.put(driverId, position);
+        // a driver standing still is not resent; key frames refresh its time
+        if (previous == null || previous[0] != position[0] || previous[1] != position[1]) {
+            moved.add(driverId);
+        }
+    }
+
+    /**
+     * Every known position. The sequence is read before the positions, so deltas up to it are already
+     * contained and later ones only carry newer positions.
+     */
+    public LocationFrame keyFrame() {
+        long seq = sequence.get();
+        long now = System.currentTimeMillis();
+        List<long[]> rows = new ArrayList<>(positions.size());
+        positions.forEach((driverId, position) -> rows.add(row(driverId, position, now)));
+        return new LocationFrame(seq, true, now, rows.toArray(long[][]::new), new long[0]);
+    }
+
+    @Scheduled(fixedRateString = "${locations.frames.interval-ms:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        List<Long> removed = sweep(now);
+        if (!subscriptions.hasSubscribers(FRAMES_TOPIC)) {
+            moved.clear();
+            return;
+        }
+        try {
+            if (now - lastKeyFrame >= keyFrameMillis) {
+                drainMoved(null);
+                lastKeyFrame = now;
+                websocket.convertAndSend(FRAMES_TOPIC, keyFrame());
+                return;
+            }
+
+            List<Long> driverIds = new ArrayList<>();
+            drainMoved(driverIds);
+            List<long[]> rows = new ArrayList<>(driverIds.size());
+            for (Long driverId : driverIds) {
+                long[] position = positions.get(driverId);
+                // swept between being marked and read
+                if (position != null) {
+                    rows.add(row(driverId, position, now));
+                }
+            }
+            if (rows.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            websocket.convertAndSend(FRAMES_TOPIC, new LocationFrame(sequence.incrementAndGet(), false, now,
+                    rows.toArray(long[][]::new), removed.stream().mapToLong(Long::longValue).toArray()));
+        } catch (Exception e) {
+            log.error("Failed to send location frame: {}", e.getMessage(), e);
+        }
+    }
+
+    // a position replaced by a newer one while the sweep runs is kept
+    private List<Long> sweep(long now) {
+        List<Long> removed = new ArrayList<>();
+        long staleBefore = now - maxAgeMillis;
+        positions.forEach((driverId, position) -> {
+            if (position[2] < staleBefore && positions.remove(driverId, position)) {
+                moved.remove(driverId);
+                removed.add(driverId);
+            }
+        });
+        return removed;
+    }
+
+    // each id is removed before its position is read, so a concurrent update marks it again for the next tick
+    private void drainMoved(List<Long> into) {
+        for (Iterator<Long> it = moved.iterator(); it.hasNext(); ) {
+            Long driverId = it.next();
+            it.remove();
+            if (into != null) {
+                into.add(driverId);
+            }
+        }
+    }
+
+    private static long[] row(long driverId, long[] position, long now) {
+        return new long[]{driverId, position[0], position[1], Math.max(0, (now - position[2]) / 1000)};
+    }
+}
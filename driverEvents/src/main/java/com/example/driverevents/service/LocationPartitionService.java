@@ -0,0 +1,156 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition maintenance for the day-partitioned location tables (see db/003_partition_locations.sql):
+ * creates partitions ahead of time and drops whole partitions once they pass retention, instead of
+ * deleting rows. location_updates partitions are rolled up into booking_track_summaries first.
+ * <p>
+ * Tables that have not been converted to partitioned tables are left alone.
+ */
+@Slf4j
+@Service
+public class LocationPartitionService {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // drivers_locations holds booking-zone local times, location_updates holds instants partitioned by UTC day
+    private static final PartitionedTable DRIVER_LOCATIONS = new PartitionedTable("drivers_locations", Booking.BOOKING_ZONE, false);
+    private static final PartitionedTable LOCATION_UPDATES = new PartitionedTable("location_updates", ZoneOffset.UTC, true);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrackSummaryService trackSummaryService;
+    private final int daysAhead;
+    private final int rawRetentionDays;
+    private final int forwardedRetentionDays;
+
+    public LocationPartitionService(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    TrackSummaryService trackSummaryService,
+                                    @Value("${locations.partitions.days-ahead:7}") int daysAhead,
+                                    @Value("${locations.retention.raw-days:14}") int rawRetentionDays,
+                                    @Value("${locations.retention.forwarded-days:90}") int forwardedRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.trackSummaryService = trackSummaryService;
+        this.daysAhead = daysAhead;
+        this.rawRetentionDays = rawRetentionDays;
+        this.forwardedRetentionDays = forwardedRetentionDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${locations.partitions.cron:0 15 3 * * *}", zone = "Europe/Sofia")
+    public void maintainPartitions() {
+        maintain(DRIVER_LOCATIONS, rawRetentionDays);
+        maintain(LOCATION_UPDATES, forwardedRetentionDays);
+    }
+
+    private void maintain(PartitionedTable table, int retentionDays) {
+        try {
+            if (!isPartitioned(table.name())) {
+                return;
+            }
+            LocalDate today = LocalDate.now(table.zone());
+            for (int i = 0; i <= daysAhead; i++) {
+                createPartition(table, today.plusDays(i));
+            }
+
+            LocalDate cutoff = today.minusDays(retentionDays);
+            for (Partition partition : partitions(table)) {
+                if (partition.day().isBefore(cutoff)) {
+                    retire(table, partition);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Partition maintenance for {} failed: {}", table.name(), e.getMessage(), e);
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_partitioned_table pt
+                JOIN pg_class c ON c.oid = pt.partrelid
+                WHERE c.relname = ? AND pg_table_is_visible(c.oid)
+                """, Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private void createPartition(PartitionedTable table, LocalDate day) {
+        String from = table.bound(day);
+        String to = table.bound(day.plusDays(1));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table.partitionName(day)
+                + " PARTITION OF " + table.name()
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private List<Partition> partitions(PartitionedTable table) {
+        Pattern pattern = Pattern.compile(Pattern.quote(table.name()) + "_p(\\d{8})");
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        JOIN pg_class p ON p.oid = i.inhparent
+                        WHERE p.relname = ? AND pg_table_is_visible(p.oid)
+                        ORDER BY c.relname
+                        """, String.class, table.name()).stream()
+                .map(pattern::matcher)
+                .filter(Matcher::matches)
+                .map(m -> new Partition(m.group(0), LocalDate.parse(m.group(1), SUFFIX)))
+                .toList();
+    }
+
+    private void retire(PartitionedTable table, Partition partition) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (table.rollUp()) {
+                int bookings = trackSummaryService.rollUpPartition(partition.name());
+                log.info("Rolled up {} into {} booking track summaries", partition.name(), bookings);
+            } else {
+                // never drop points the poller has not processed yet
+                Boolean pending = jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + partition.name() + " WHERE sent_to_api IS NULL)",
+                        Boolean.class);
+                if (Boolean.TRUE.equals(pending)) {
+                    log.warn("Keeping {}: it still has unprocessed locations", partition.name());
+                    return;
+                }
+            }
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+            log.info("Dropped partition {}", partition.name());
+        });
+    }
+
+    private record PartitionedTable(String name, ZoneId zone, boolean rollUp) {
+
+        String partitionName(LocalDate day) {
+            return name + "_p" + day.format(SUFFIX);
+        }
+
+        // timestamptz bounds carry an explicit UTC offset so the session time zone cannot shift them
+        String bound(LocalDate day) {
+            return rollUp ? day + " 00:00:00+00" : day.toString();
+        }
+    }
+
+    private record Partition(String name, LocalDate day) {}
+}
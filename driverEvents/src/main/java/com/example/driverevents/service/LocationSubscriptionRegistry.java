@@ -0,0 +1,108 @@
+package com.example.driverevents.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live STOMP subscriptions per destination, kept from the session subscribe, unsubscribe and disconnect
+ * events, so that location updates are only serialized and sent to topics somebody is listening on.
+ * <p>
+ * Pattern subscriptions ({@code /topic/location/driver/*}) are matched the way the simple broker matches
+ * them. Counts are per node; each node only delivers to its own sessions.
+ */
+@Slf4j
+@Component
+public class LocationSubscriptionRegistry {
+
+    /** Every driver's updates; kept for clients that still filter on their side. */
+    public static final String ALL_DRIVERS_TOPIC = "/topic/location";
+    static final String DRIVER_TOPIC_PREFIX = "/topic/location/driver/";
+    static final String BOOKING_TOPIC_PREFIX = "/topic/location/booking/";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // session id -> subscription id -> destination, for unsubscribe and disconnect
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> destinations = new ConcurrentHashMap<>();
+    private final Map<String, Integer> patterns = new ConcurrentHashMap<>();
+
+    public static String driverTopic(long driverId) {
+        return DRIVER_TOPIC_PREFIX + driverId;
+    }
+
+    public static String bookingTopic(long bookingId) {
+        return BOOKING_TOPIC_PREFIX + bookingId;
+    }
+
+    public boolean hasSubscribers(String destination) {
+        if (destinations.containsKey(destination)) {
+            return true;
+        }
+        if (!patterns.isEmpty()) {
+            for (String pattern : patterns.keySet()) {
+                if (pathMatcher.match(pattern, destination)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = headers.getSessionId();
+        String subscriptionId = headers.getSubscriptionId();
+        String destination = headers.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            release(previous);
+        }
+        counts(destination).merge(destination, 1, Integer::sum);
+        log.debug("Session {} subscribed to {}", sessionId, destination);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = headers.getSessionId() != null
+                ? sessions.get(headers.getSessionId())
+                : null;
+        if (subscriptions == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = subscriptions.remove(headers.getSubscriptionId());
+        if (destination != null) {
+            release(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void release(String destination) {
+        counts(destination).computeIfPresent(destination, (d, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private Map<String, Integer> counts(String destination) {
+        return pathMatcher.isPattern(destination) ? patterns : destinations;
+    }
+}
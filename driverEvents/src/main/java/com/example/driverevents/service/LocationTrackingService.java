@@ -1,14 +1,18 @@
 package com.example.driverevents.service;
 
 import com.example.driverevents.model.Booking;
-import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.BookingWindow;
+import com.example.driverevents.model.DriverSnapshot;
+import com.example.driverevents.model.LiveLocation;
 import com.example.driverevents.model.LocationUpdateFromDrivers;
 import com.example.driverevents.repository.BookingRepository;
 import com.example.driverevents.repository.DriverRepository;
 import com.example.driverevents.repository.LocationUpdateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -26,21 +30,40 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequiredArgsConstructor
 public class LocationTrackingService {
 
-    private final SimpMessagingTemplate websocket;
     private final BookingRepository bookingRepository;
     private final DriverRepository driverRepository;
     private final LocationUpdateRepository locationUpdateRepository;
     private final ExternalApiService externalApiService;
+    private final DriverPositionIndex driverPositionIndex;
+    private final ReferenceDataLookupService referenceDataLookupService;
+    private final LiveLocationBroadcaster liveLocations;
+
+    // Upper bound on trip length, keeps the (driver_id, start_at) index scan bounded
+    private static final long MAX_TRIP_HOURS = 24;
 
     private final Map<String, Boolean> activeConnections = new ConcurrentHashMap<>();
 
+    // Points claimed per poll; a larger backlog is worked off over the next polls
+    @Value("${locations.poll.batch-size:200}")
+    private int pollBatchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDriverPositions() {
+        try {
+            driverPositionIndex.load(driverRepository.findAll(),
+                    locationUpdateRepository.findLatestPerDriverSince(driverPositionIndex.freshAfter()));
+        } catch (Exception e) {
+            log.error("Failed to load driver positions: {}", e.getMessage(), e);
+        }
+    }
+
     @Scheduled(fixedRate = 5000) // Every 5 seconds
     @Transactional
     public void pollNewLocations() {
         try {
-            // Find all locations that haven't been processed yet (sent_to_api is NULL)
-            List<LocationUpdateFromDrivers> newLocations = locationUpdateRepository
-                    .findBySentToApiIsNullOrderByTimestampAsc();
+            // Find the oldest locations that haven't been processed yet (sent_to_api is NULL); with several
+            // instances running, each claims its own rows
+            List<LocationUpdateFromDrivers> newLocations = locationUpdateRepository.claimUnsent(pollBatchSize);
 
             if (!newLocations.isEmpty()) {
                 log.debug("Found {} new location updates to process", newLocations.size());
@@ -68,7 +91,7 @@ public class LocationTrackingService {
         Double longitude = location.getLongitude();
         LocalDateTime timestamp = location.getTimestamp();
 
-        Driver driver = driverRepository.findByEmail(driverEmail);
+        DriverSnapshot driver = referenceDataLookupService.findDriverByEmail(driverEmail);
         if (driver == null) {
             log.warn("No driver found for email: {}", driverEmail);
             location.setSentToApi(true);
@@ -76,23 +99,32 @@ public class LocationTrackingService {
             return;
         }
 
+        if (latitude != null && longitude != null && timestamp != null) {
+            driverPositionIndex.update(driver, latitude, longitude, timestamp);
+        }
+
         // find active booking for this driver
-        List<Booking> activeBookings = bookingRepository.findActiveBookingForDriver(driver.getId(), timestamp);
+        List<BookingWindow> activeBookings = findActiveBookings(driver.id(), timestamp);
 
-        sendToWebSocket(driverEmail, latitude, longitude, timestamp);
+        List<Long> bookingIds = new ArrayList<>(activeBookings.size());
+        for (BookingWindow activeBooking : activeBookings) {
+            bookingIds.add(activeBooking.bookingId());
+        }
+        liveLocations.publish(new LiveLocation(driver.id(), driverEmail, latitude, longitude, timestamp,
+                bookingIds));
 
         // If there is an active booking, send to external API
         if (!activeBookings.isEmpty()) {
-            for (Booking activeBooking : activeBookings) {
-                if (activeBooking.getSyncedWithApi() == true) {
+            for (BookingWindow activeBooking : activeBookings) {
+                if (activeBooking.syncedWithApi()) {
                     try {
                         log.info("Found {} ACTIVE bookings for {}", activeBookings.size(), driverEmail);
                         log.info("Active booking found: {}. Sending location to external API",
-                                activeBooking.getBookingNumber());
+                                activeBooking.bookingNumber());
                         externalApiService.sendLocationUpdate(activeBooking, location);
                     } catch (Exception e) {
                         log.error("Failed to send location update to external API for booking {}: {}",
-                                activeBooking.getBookingNumber(), e.getMessage(), e);
+                                activeBooking.bookingNumber(), e.getMessage(), e);
                         // Don't mark as sent if it failed
                         location.setSentToApi(false);
                     }
@@ -108,26 +140,22 @@ public class LocationTrackingService {
         log.debug("Location update {} marked as processed", location.getId());
     }
 
-    private void sendToWebSocket(String driverEmail, Double latitude, Double longitude, LocalDateTime timestamp) {
-//        log.info("🔔 ATTEMPTING to send location to WebSocket for driver: {}", driverEmail);
-        try {
-            Map<String, Object> locationData = new HashMap<>();
-            locationData.put("email", driverEmail);
-            locationData.put("latitude", latitude);
-            locationData.put("longitude", longitude);
-            locationData.put("timestamp", timestamp.toString());
-
-            String topic = "/topic/location";
-
-//            log.info("📤 About to call websocket.convertAndSend - Topic: {}, Data: {}", topic, locationData);
-            websocket.convertAndSend(topic, locationData);
-            log.info("✅ SENT location - Driver: {}", driverEmail);
-
-        } catch (Exception e) {
-            log.error("Failed to send location to WebSocket for driver {}: {}",
-                    driverEmail, e.getMessage(), e);
-            e.printStackTrace();
+    // A booking is active from 30 minutes before its start until start + route duration
+    private List<BookingWindow> findActiveBookings(Long driverId, LocalDateTime timestamp) {
+        OffsetDateTime at = timestamp.atZone(Booking.BOOKING_ZONE).toOffsetDateTime();
+        List<Booking> candidates = bookingRepository.findActiveBookingsForDriver(driverId,
+                at.minusHours(MAX_TRIP_HOURS),
+                at.plusMinutes(BookingWindow.LEAD_MINUTES),
+                at);
+
+        List<BookingWindow> active = new ArrayList<>();
+        for (Booking b : candidates) {
+            BookingWindow window = BookingWindow.of(b);
+            if (window != null) {
+                active.add(window);
+            }
         }
+        return active;
     }
 
     public void registerWebSocketConnection(String driverEmail) {
@@ -0,0 +1,285 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.config.CacheConfig;
+import com.example.driverevents.model.DriverSnapshot;
+import com.example.driverevents.model.LiveLocation;
+import com.example.driverevents.service.ReferenceDataListener.ReferenceData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Live-location fan-out between instances over Postgres LISTEN/NOTIFY, active with
+ * {@code websocket.cluster.mode=postgres}.
+ * <p>
+ * Every position processed here is sent with {@code pg_notify} on the pooled connection, inside the
+ * polling transaction, so the other instances see it once the point is committed. One dedicated
+ * connection per instance LISTENs on the channel; the other instances' positions go into the
+ * {@link DriverPositionIndex} and to {@link LiveLocationBroadcaster#deliver}. Messages carry the sender's
+ * node id so an instance skips its own. The listener reconnects with backoff; positions sent while it
+ * is down are not replayed, the next key frame and the next position of each driver catch the map up.
+ * <p>
+ * The same channel carries the changes the other instances keep derived copies of: committed booking
+ * changes reload those bookings' active windows, driver and vehicle writes drop the cached driver
+ * snapshots, destination writes reload the route matrix. They are collected and sent once a second;
+ * anything lost while a listener was down is caught up by the active-window reconciliation and the
+ * cache TTL.
+ * <p>
+ * The listening connection stays open for the life of the instance, so it is opened outside the pool,
+ * with the pool's URL, credentials and {@code spring.datasource.hikari.data-source-properties} (SSL and
+ * other driver settings).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.cluster.mode", havingValue = "postgres")
+public class PostgresLocationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    // NOTIFY payloads are limited to 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_MILLIS = 5000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    // ~10 bytes per id keeps a message well under the payload limit
+    private static final int BOOKING_IDS_PER_MESSAGE = 500;
+
+    /** A processed position, changed reference data or changed bookings; the other fields are null. */
+    record Message(String node, LiveLocation location, ReferenceData changed, List<Long> bookingIds) {
+
+        static Message position(String node, LiveLocation location) {
+            return new Message(node, location, null, null);
+        }
+    }
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final LiveLocationBroadcaster broadcaster;
+    private final DriverPositionIndex driverPositionIndex;
+    private final ReferenceDataLookupService referenceDataLookupService;
+    private final ActiveBookingService activeBookingService;
+    private final RouteDurationService routeDurationService;
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<String, String> driverProperties;
+    private final String channel;
+
+    // committed here, not yet sent to the other instances
+    private final Set<ReferenceData> pendingReferenceData = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingBookingIds = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresLocationBus(LiveLocationBroadcaster broadcaster, DriverPositionIndex driverPositionIndex,
+                               ReferenceDataLookupService referenceDataLookupService,
+                               ActiveBookingService activeBookingService, RouteDurationService routeDurationService,
+                               CacheManager cacheManager, JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper, DataSourceProperties dataSourceProperties,
+                               Environment environment,
+                               @Value("${websocket.cluster.channel:live_locations}") String channel) {
+        // LISTEN takes an identifier, not a bind parameter
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid websocket.cluster.channel: " + channel);
+        }
+        this.broadcaster = broadcaster;
+        this.driverPositionIndex = driverPositionIndex;
+        this.referenceDataLookupService = referenceDataLookupService;
+        this.activeBookingService = activeBookingService;
+        this.routeDurationService = routeDurationService;
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+        this.driverProperties = Binder.get(environment)
+                .bind("spring.datasource.hikari.data-source-properties", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        this.channel = channel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("location-bus").daemon().start(this::listen);
+        log.info("Live locations fan out over Postgres channel {} as node {}", channel, nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    public void publish(LiveLocation location) {
+        try {
+            send(Message.position(nodeId, location));
+        } catch (Exception e) {
+            log.error("Failed to publish location of driver {} to other instances: {}",
+                    location.email(), e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataListener.ReferenceDataChangedEvent event) {
+        pendingReferenceData.add(event.data());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingService.BookingChangedEvent event) {
+        pendingBookingIds.add(event.bookingId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsRescheduled(BookingScheduleService.BookingsRescheduledEvent event) {
+        pendingBookingIds.addAll(event.bookingIds());
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.cluster.changes-interval-ms:1000}")
+    public void publishChanges() {
+        try {
+            for (ReferenceData data : List.copyOf(pendingReferenceData)) {
+                pendingReferenceData.remove(data);
+                send(new Message(nodeId, null, data, null));
+            }
+            List<Long> bookingIds = List.copyOf(pendingBookingIds);
+            pendingBookingIds.removeAll(bookingIds);
+            for (int from = 0; from < bookingIds.size(); from += BOOKING_IDS_PER_MESSAGE) {
+                send(new Message(nodeId, null, null,
+                        bookingIds.subList(from, Math.min(from + BOOKING_IDS_PER_MESSAGE, bookingIds.size()))));
+            }
+        } catch (Exception e) {
+            log.error("Failed to publish changes to other instances: {}", e.getMessage(), e);
+        }
+    }
+
+    private void send(Message message) throws JsonProcessingException {
+        String payload = objectMapper.writeValueAsString(message);
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            log.warn("Message too large for NOTIFY, not sent to other instances");
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, channel, payload);
+    }
+
+    private void listen() {
+        long backoff = 1000;
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                backoff = 1000;
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Location bus connection lost, reconnecting in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    // what Hikari hands the driver for a jdbcUrl pool: the data source properties plus the credentials
+    private Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.putAll(driverProperties);
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    void receive(String payload) {
+        try {
+            Message message = objectMapper.readValue(payload, Message.class);
+            if (nodeId.equals(message.node())) {
+                return;
+            }
+            if (message.location() != null) {
+                receivePosition(message.location());
+            }
+            if (message.changed() == ReferenceData.DRIVERS) {
+                clear(CacheConfig.DRIVERS_BY_EMAIL, CacheConfig.DRIVERS_BY_NAME);
+            } else if (message.changed() == ReferenceData.DESTINATIONS) {
+                clear(CacheConfig.DESTINATIONS);
+                routeDurationService.load();
+            }
+            if (message.bookingIds() != null) {
+                activeBookingService.reload(message.bookingIds());
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable location bus message: {}", e.getMessage());
+        }
+    }
+
+    private void receivePosition(LiveLocation location) {
+        if (location.latitude() != null && location.longitude() != null && location.timestamp() != null) {
+            DriverSnapshot driver = referenceDataLookupService.findDriverByEmail(location.email());
+            if (driver != null) {
+                driverPositionIndex.update(driver, location.latitude(), location.longitude(), location.timestamp());
+            }
+        }
+        broadcaster.deliver(location);
+    }
+
+    private void clear(String... cacheNames) {
+        for (String name : cacheNames) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
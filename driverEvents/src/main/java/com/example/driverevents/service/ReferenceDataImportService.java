@@ -0,0 +1,629 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.config.CacheConfig;
+import com.example.driverevents.config.TokenGenerator;
+import com.example.driverevents.model.Destination;
+import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.model.ImportRowError;
+import com.example.driverevents.model.Vehicle;
+import com.example.driverevents.service.ReferenceDataListener.ReferenceData;
+import com.example.driverevents.service.ReferenceDataListener.ReferenceDataChangedEvent;
+import com.example.driverevents.service.XlsxRowReader.SheetCell;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of drivers, vehicles and routes from a sheet or CSV (same layout as the files in
+ * {@code test-data/}). Rows are read streaming and written per chunk: one lookup of the natural keys that
+ * already exist, then one batched INSERT for new rows and one batched UPDATE for changed ones.
+ * <p>
+ * Natural keys are compared trimmed and case-folded: driver email, vehicle registration number and the
+ * route's start and end location. Updates only touch rows whose values differ, so re-importing the same
+ * file reports every row as skipped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataImportService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String INSERT_DRIVER = """
+            INSERT INTO drivers (name, email, phone_number, token, token_expiry, is_active, vehicle_id,
+                                 preferred_contact_method, status)
+            VALUES (:name, :email, :phone, :token, :tokenExpiry, true, :vehicleId, :contactMethod, :status)
+            """;
+
+    private static final String UPDATE_DRIVER = """
+            UPDATE drivers
+            SET name = :name, phone_number = :phone, vehicle_id = :vehicleId,
+                preferred_contact_method = :contactMethod, status = :status
+            WHERE id = :id
+              AND (name, phone_number, vehicle_id, preferred_contact_method, status)
+                  IS DISTINCT FROM (:name, :phone, CAST(:vehicleId AS bigint), :contactMethod, :status)
+            """;
+
+    private static final String VEHICLE_IDS = """
+            SELECT id, lower(trim(registration_number)) FROM vehicles
+            WHERE lower(trim(registration_number)) IN (:keys) ORDER BY id
+            """;
+
+    private static final String INSERT_VEHICLE = """
+            INSERT INTO vehicles (registration_number, model, brand, color, capacity, description, driver_id, status)
+            VALUES (:registration, :model, :brand, :color, :capacity, :description, :driverId, :status)
+            """;
+
+    private static final String UPDATE_VEHICLE = """
+            UPDATE vehicles
+            SET model = :model, brand = :brand, color = :color, capacity = :capacity,
+                description = :description, driver_id = :driverId, status = :status
+            WHERE id = :id
+              AND (model, brand, color, capacity, description, driver_id, status)
+                  IS DISTINCT FROM (:model, :brand, :color, CAST(:capacity AS integer), CAST(:description AS varchar),
+                                    CAST(:driverId AS bigint), :status)
+            """;
+
+    private static final String INSERT_DESTINATION = """
+            INSERT INTO destinations (start_location, end_location, duration_minutes)
+            VALUES (:start, :end, :duration)
+            """;
+
+    private static final String UPDATE_DESTINATION = """
+            UPDATE destinations
+            SET duration_minutes = :duration
+            WHERE id = :id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final RouteDurationService routeDurationService;
+    private final BookingScheduleService bookingScheduleService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * A data row by lower-cased header; {@code row} is the 1-based row (or CSV record) number.
+     */
+    record SourceRow(int row, Map<String, String> values) {
+
+        // the first of the header spellings that is present, trimmed; "" when none is
+        String get(String... headers) {
+            for (String header : headers) {
+                String value = values.get(header);
+                if (value != null) {
+                    return value.trim();
+                }
+            }
+            return "";
+        }
+    }
+
+    // A validated row, ready to be written with its INSERT or UPDATE
+    private record Staged(int row, String key, boolean insert, MapSqlParameterSource parameters) {}
+
+    @FunctionalInterface
+    private interface FileImport {
+        ImportResult run(Path file, boolean csv) throws IOException;
+    }
+
+    public ImportResult importDrivers(MultipartFile file) throws IOException {
+        return spool(file, this::importDrivers);
+    }
+
+    public ImportResult importVehicles(MultipartFile file) throws IOException {
+        return spool(file, this::importVehicles);
+    }
+
+    public ImportResult importDestinations(MultipartFile file) throws IOException {
+        return spool(file, this::importDestinations);
+    }
+
+    // Both readers need random access, so the upload is copied to a file first; *.csv is read as CSV
+    private static ImportResult spool(MultipartFile file, FileImport fileImport) throws IOException {
+        String name = file.getOriginalFilename();
+        boolean csv = (name != null && name.toLowerCase(Locale.ROOT).endsWith(".csv"))
+                || "text/csv".equalsIgnoreCase(file.getContentType());
+        Path upload = Files.createTempFile("reference-", csv ? ".csv" : ".xlsx");
+        try {
+            file.transferTo(upload);
+            return fileImport.run(upload, csv);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    ImportResult importDrivers(Path file, boolean csv) throws IOException {
+        try {
+            return read(file, csv, this::writeDrivers);
+        } finally {
+            evict(CacheConfig.DRIVERS_BY_EMAIL, CacheConfig.DRIVERS_BY_NAME);
+            eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceData.DRIVERS));
+        }
+    }
+
+    ImportResult importVehicles(Path file, boolean csv) throws IOException {
+        try {
+            return read(file, csv, this::writeVehicles);
+        } finally {
+            // cached driver snapshots carry their vehicle
+            evict(CacheConfig.DRIVERS_BY_EMAIL);
+            eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceData.DRIVERS));
+        }
+    }
+
+    ImportResult importDestinations(Path file, boolean csv) throws IOException {
+        Map<String, Staged> changedRoutes = new LinkedHashMap<>();
+        try {
+            return read(file, csv, rows -> writeDestinations(rows, changedRoutes));
+        } finally {
+            evict(CacheConfig.DESTINATIONS);
+            routeDurationService.load();
+            eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceData.DESTINATIONS));
+            for (Staged route : changedRoutes.values()) {
+                bookingScheduleService.onRouteChanged((String) route.parameters().getValue("start"),
+                        (String) route.parameters().getValue("end"));
+            }
+        }
+    }
+
+    // Drivers ------------------------------------------------------------------------------------------
+
+    private ImportResult writeDrivers(List<SourceRow> rows) {
+        List<ImportRowError> errors = new ArrayList<>();
+        Map<String, SourceRow> byEmail = lastByKey(rows, r -> r.get("email"), errors);
+
+        Map<String, Long> existing = queryIds("""
+                SELECT id, lower(trim(email)) FROM drivers
+                WHERE lower(trim(email)) IN (:keys) ORDER BY id
+                """, byEmail.keySet());
+        Set<String> registrations = new HashSet<>();
+        byEmail.values().forEach(r -> registrations.add(normalize(vehicleOf(r))));
+        registrations.remove("");
+        Map<String, Long> vehicles = queryIds(VEHICLE_IDS, registrations);
+
+        List<Staged> staged = new ArrayList<>();
+        int created = 0;
+        for (Map.Entry<String, SourceRow> entry : byEmail.entrySet()) {
+            SourceRow r = entry.getValue();
+            String email = r.get("email");
+            try {
+                Driver driver = new Driver();
+                driver.setName(r.get("name"));
+                driver.setEmail(email);
+                driver.setPhoneNumber(r.get("phone number", "phone"));
+                driver.setPreferredContactMethod(parseEnum(Driver.ContactMethod.class,
+                        r.get("contact method", "preferred contact method"), Driver.ContactMethod.VOICE));
+                driver.setStatus(parseEnum(Driver.DriverStatus.class,
+                        r.get("driver status", "status"), Driver.DriverStatus.AVAILABLE));
+                String registration = vehicleOf(r);
+                Long vehicleId = vehicles.get(normalize(registration));
+                if (!registration.isEmpty() && vehicleId == null) {
+                    throw new IllegalArgumentException("Vehicle " + registration + " not found");
+                }
+                String violations = violations(driver);
+                if (violations != null) {
+                    errors.add(new ImportRowError(r.row(), email, violations));
+                    continue;
+                }
+
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                        .addValue("name", driver.getName())
+                        .addValue("email", email)
+                        .addValue("phone", driver.getPhoneNumber())
+                        .addValue("vehicleId", vehicleId)
+                        .addValue("contactMethod", driver.getPreferredContactMethod().name())
+                        .addValue("status", driver.getStatus().name());
+                Long id = existing.get(entry.getKey());
+                if (id == null) {
+                    created++;
+                    staged.add(new Staged(r.row(), email, true, parameters));
+                } else {
+                    staged.add(new Staged(r.row(), email, false, parameters.addValue("id", id)));
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportRowError(r.row(), email, e.getMessage()));
+            }
+        }
+
+        // tokens for every new driver of the chunk from one draw of random bytes
+        List<String> tokens = TokenGenerator.generateTokens(created);
+        LocalDateTime tokenExpiry = TokenGenerator.getDefaultExpiry();
+        int next = 0;
+        for (Staged s : staged) {
+            if (s.insert()) {
+                s.parameters().addValue("token", tokens.get(next++)).addValue("tokenExpiry", tokenExpiry);
+            }
+        }
+        return write(rows.size(), staged, INSERT_DRIVER, UPDATE_DRIVER, errors);
+    }
+
+    private static String vehicleOf(SourceRow r) {
+        return r.get("veh reg n", "vehicle", "registration number");
+    }
+
+    // Vehicles -----------------------------------------------------------------------------------------
+
+    private ImportResult writeVehicles(List<SourceRow> rows) {
+        List<ImportRowError> errors = new ArrayList<>();
+        Map<String, SourceRow> byRegistration = lastByKey(rows, r -> r.get("reg num", "registration number"), errors);
+
+        Map<String, Long> existing = queryIds(VEHICLE_IDS, byRegistration.keySet());
+        Set<Long> driverIds = new HashSet<>();
+        for (SourceRow r : byRegistration.values()) {
+            try {
+                Long driverId = parseLong(r.get("driver id"));
+                if (driverId != null) {
+                    driverIds.add(driverId);
+                }
+            } catch (IllegalArgumentException e) {
+                // reported against the row below
+            }
+        }
+        Set<Long> drivers = driverIds.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM drivers WHERE id IN (:ids)", new MapSqlParameterSource("ids", driverIds), Long.class));
+
+        List<Staged> staged = new ArrayList<>();
+        for (Map.Entry<String, SourceRow> entry : byRegistration.entrySet()) {
+            SourceRow r = entry.getValue();
+            String registration = r.get("reg num", "registration number");
+            try {
+                Vehicle vehicle = new Vehicle();
+                vehicle.setRegistrationNumber(registration);
+                vehicle.setModel(r.get("model"));
+                vehicle.setBrand(r.get("brand"));
+                vehicle.setColor(r.get("color", "colour"));
+                vehicle.setCapacity(parseInteger(r.get("capacity")));
+                String description = r.get("description");
+                vehicle.setDescription(description.isEmpty() ? null : description);
+                vehicle.setStatus(parseEnum(Vehicle.VehicleStatus.class, r.get("status"),
+                        Vehicle.VehicleStatus.AVAILABLE));
+                Long driverId = parseLong(r.get("driver id"));
+                if (driverId != null && !drivers.contains(driverId)) {
+                    throw new IllegalArgumentException("Driver " + driverId + " not found");
+                }
+                String violations = violations(vehicle);
+                if (violations != null) {
+                    errors.add(new ImportRowError(r.row(), registration, violations));
+                    continue;
+                }
+
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                        .addValue("registration", registration)
+                        .addValue("model", vehicle.getModel())
+                        .addValue("brand", vehicle.getBrand())
+                        .addValue("color", vehicle.getColor())
+                        .addValue("capacity", vehicle.getCapacity())
+                        .addValue("description", vehicle.getDescription())
+                        .addValue("driverId", driverId)
+                        .addValue("status", vehicle.getStatus().name());
+                Long id = existing.get(entry.getKey());
+                staged.add(id == null
+                        ? new Staged(r.row(), registration, true, parameters)
+                        : new Staged(r.row(), registration, false, parameters.addValue("id", id)));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportRowError(r.row(), registration, e.getMessage()));
+            }
+        }
+        return write(rows.size(), staged, INSERT_VEHICLE, UPDATE_VEHICLE, errors);
+    }
+
+    // Destinations -------------------------------------------------------------------------------------
+
+    private ImportResult writeDestinations(List<SourceRow> rows, Map<String, Staged> changedRoutes) {
+        List<ImportRowError> errors = new ArrayList<>();
+        Map<String, SourceRow> byRoute = lastByKey(rows, ReferenceDataImportService::routeOf, errors);
+
+        // the route table is small; one read per chunk also sees routes created by the previous chunk
+        Map<String, Destination> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, start_location, end_location, duration_minutes FROM destinations ORDER BY id",
+                rs -> {
+                    Destination d = new Destination();
+                    d.setId(rs.getLong(1));
+                    d.setStartLocation(rs.getString(2));
+                    d.setEndLocation(rs.getString(3));
+                    d.setDurationMinutes((Integer) rs.getObject(4));
+                    existing.putIfAbsent(normalize(routeOf(d.getStartLocation(), d.getEndLocation())), d);
+                });
+
+        List<Staged> staged = new ArrayList<>();
+        for (Map.Entry<String, SourceRow> entry : byRoute.entrySet()) {
+            SourceRow r = entry.getValue();
+            String route = routeOf(r);
+            try {
+                Destination destination = new Destination();
+                destination.setStartLocation(r.get("start location", "from"));
+                destination.setEndLocation(r.get("end location", "destination", "to"));
+                if (destination.getStartLocation().isEmpty() || destination.getEndLocation().isEmpty()) {
+                    throw new IllegalArgumentException("Missing start or end location");
+                }
+                destination.setDurationMinutes(parseInteger(r.get("duration minutes", "duration")));
+                String violations = violations(destination);
+                if (violations != null) {
+                    errors.add(new ImportRowError(r.row(), route, violations));
+                    continue;
+                }
+
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                        .addValue("start", destination.getStartLocation())
+                        .addValue("end", destination.getEndLocation())
+                        .addValue("duration", destination.getDurationMinutes());
+                Destination current = existing.get(entry.getKey());
+                if (current == null) {
+                    staged.add(new Staged(r.row(), route, true, parameters));
+                } else if (!destination.getDurationMinutes().equals(current.getDurationMinutes())) {
+                    staged.add(new Staged(r.row(), route, false, parameters.addValue("id", current.getId())));
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportRowError(r.row(), route, e.getMessage()));
+            }
+        }
+
+        ImportResult result = write(rows.size(), staged, INSERT_DESTINATION, UPDATE_DESTINATION, errors);
+        Set<Integer> failed = result.errors().stream().map(ImportRowError::row).collect(Collectors.toSet());
+        staged.stream().filter(s -> !failed.contains(s.row())).forEach(s -> changedRoutes.put(s.key(), s));
+        return result;
+    }
+
+    private static String routeOf(SourceRow r) {
+        String start = r.get("start location", "from");
+        String end = r.get("end location", "destination", "to");
+        return start.isEmpty() && end.isEmpty() ? "" : routeOf(start, end);
+    }
+
+    private static String routeOf(String start, String end) {
+        return start.trim() + " - " + end.trim();
+    }
+
+    // Shared stages ------------------------------------------------------------------------------------
+
+    // Reads the file in chunks of CHUNK_SIZE rows; the first row is the header, blank rows are ignored
+    private ImportResult read(Path file, boolean csv, Function<List<SourceRow>, ImportResult> writer)
+            throws IOException {
+        Chunks chunks = new Chunks(writer);
+        if (csv) {
+            List<String> header = new ArrayList<>();
+            CsvChunkReader.read(file, (recordNum, fields) -> {
+                if (recordNum == 0) {
+                    fields.forEach(f -> header.add(f.trim().toLowerCase(Locale.ROOT)));
+                    return;
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < Math.min(header.size(), fields.size()); i++) {
+                    values.putIfAbsent(header.get(i), fields.get(i));
+                }
+                chunks.add(new SourceRow(recordNum + 1, values));
+            });
+        } else {
+            Map<Integer, String> header = new HashMap<>();
+            XlsxRowReader.read(file, (rowNum, cells) -> {
+                if (header.isEmpty()) {
+                    cells.forEach((column, cell) -> header.put(column, text(cell).trim().toLowerCase(Locale.ROOT)));
+                    return true;
+                }
+                Map<String, String> values = new HashMap<>();
+                cells.forEach((column, cell) -> {
+                    String name = header.get(column);
+                    if (name != null) {
+                        values.putIfAbsent(name, text(cell));
+                    }
+                });
+                chunks.add(new SourceRow(rowNum + 1, values));
+                return true;
+            });
+        }
+        return chunks.flush();
+    }
+
+    private static final class Chunks {
+
+        private final Function<List<SourceRow>, ImportResult> writer;
+        private final List<SourceRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        private ImportResult result = ImportResult.EMPTY;
+
+        Chunks(Function<List<SourceRow>, ImportResult> writer) {
+            this.writer = writer;
+        }
+
+        void add(SourceRow row) {
+            if (row.values().values().stream().allMatch(String::isBlank)) {
+                return;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        ImportResult flush() {
+            if (!chunk.isEmpty()) {
+                result = result.plus(writer.apply(List.copyOf(chunk)));
+                chunk.clear();
+            }
+            return result;
+        }
+    }
+
+    // Last row per natural key wins; rows without a key are rejected
+    private static Map<String, SourceRow> lastByKey(List<SourceRow> rows, Function<SourceRow, String> key,
+                                                   List<ImportRowError> errors) {
+        Map<String, SourceRow> byKey = new LinkedHashMap<>();
+        for (SourceRow r : rows) {
+            String k = normalize(key.apply(r));
+            if (k.isEmpty()) {
+                errors.add(new ImportRowError(r.row(), null, "Missing key column"));
+            } else {
+                byKey.put(k, r);
+            }
+        }
+        return byKey;
+    }
+
+    // natural key (already normalized) -> id, the oldest row winning where the table holds duplicates
+    private Map<String, Long> queryIds(String sql, Collection<String> keys) {
+        Map<String, Long> ids = new HashMap<>();
+        if (!keys.isEmpty()) {
+            jdbcTemplate.query(sql, new MapSqlParameterSource("keys", keys),
+                    rs -> {
+                        ids.putIfAbsent(rs.getString(2), rs.getLong(1));
+                    });
+        }
+        return ids;
+    }
+
+    /**
+     * Runs the chunk's inserts and updates as two batches in one transaction. If that fails, rows are retried
+     * one by one so the failure is reported against the row that caused it.
+     */
+    private ImportResult write(int rows, List<Staged> staged, String insertSql, String updateSql,
+                               List<ImportRowError> errors) {
+        if (!staged.isEmpty()) {
+            try {
+                int[] counts = transactionTemplate.execute(status -> execute(staged, insertSql, updateSql));
+                return result(rows, counts, errors);
+            } catch (DataAccessException e) {
+                log.warn("Batch import of {} rows failed, retrying row by row: {}", staged.size(), e.getMessage());
+            }
+        }
+
+        int[] counts = new int[2];
+        for (Staged s : staged) {
+            try {
+                int[] single = transactionTemplate.execute(status -> execute(List.of(s), insertSql, updateSql));
+                counts[0] += single[0];
+                counts[1] += single[1];
+            } catch (DataAccessException e) {
+                errors.add(new ImportRowError(s.row(), s.key(), e.getMostSpecificCause().getMessage()));
+            }
+        }
+        return result(rows, counts, errors);
+    }
+
+    // {created, updated}; an update that matched no row (values unchanged) counts as neither
+    private int[] execute(List<Staged> staged, String insertSql, String updateSql) {
+        SqlParameterSource[] inserts = staged.stream().filter(Staged::insert).map(Staged::parameters)
+                .toArray(SqlParameterSource[]::new);
+        SqlParameterSource[] updates = staged.stream().filter(s -> !s.insert()).map(Staged::parameters)
+                .toArray(SqlParameterSource[]::new);
+        int updated = 0;
+        if (inserts.length > 0) {
+            jdbcTemplate.batchUpdate(insertSql, inserts);
+        }
+        if (updates.length > 0) {
+            for (int count : jdbcTemplate.batchUpdate(updateSql, updates)) {
+                if (count != 0) {
+                    updated++;
+                }
+            }
+        }
+        return new int[]{inserts.length, updated};
+    }
+
+    private static ImportResult result(int rows, int[] counts, List<ImportRowError> errors) {
+        errors.sort(Comparator.comparingInt(ImportRowError::row));
+        return new ImportResult(counts[0], counts[1], rows - counts[0] - counts[1] - errors.size(),
+                List.copyOf(errors));
+    }
+
+    private String violations(Object entity) {
+        Set<? extends ConstraintViolation<?>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void evict(String... cacheNames) {
+        for (String name : cacheNames) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E fallback) {
+        if (value.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " '" + value + "'");
+        }
+    }
+
+    private static Integer parseInteger(String value) {
+        Long parsed = parseLong(value);
+        if (parsed != null && (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Number out of range: '" + value + "'");
+        }
+        return parsed == null ? null : parsed.intValue();
+    }
+
+    private static Long parseLong(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            // sheets hand whole numbers over as 5.0 at times
+            double number = Double.parseDouble(value);
+            if (number != Math.rint(number)) {
+                throw new NumberFormatException();
+            }
+            return (long) number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a whole number: '" + value + "'");
+        }
+    }
+
+    private static String text(SheetCell cell) {
+        if (cell == null) {
+            return "";
+        }
+        return switch (cell.kind()) {
+            // phone numbers and capacities are typed as numbers in the sheets
+            case NUMERIC -> cell.number() == Math.rint(cell.number())
+                    ? Long.toString((long) cell.number())
+                    : Double.toString(cell.number());
+            default -> cell.text() == null ? "" : cell.text();
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Destination;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports driver, vehicle and destination writes, so that instances other than the writing one can drop
+ * what they derived from them (see {@link PostgresLocationBus}).
+ */
+@Component
+public class ReferenceDataListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReferenceDataListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterWrite(Object entity) {
+        // vehicles only reach the rest of the application through the driver snapshot
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(
+                entity instanceof Destination ? ReferenceData.DESTINATIONS : ReferenceData.DRIVERS));
+    }
+
+    public enum ReferenceData {
+        DRIVERS,
+        DESTINATIONS
+    }
+
+    public record ReferenceDataChangedEvent(ReferenceData data) {}
+
+}
@@ -0,0 +1,42 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.config.CacheConfig;
+import com.example.driverevents.model.DestinationResponse;
+import com.example.driverevents.model.DriverSnapshot;
+import com.example.driverevents.repository.DestinationsRepository;
+import com.example.driverevents.repository.DriverRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cached reference-data lookups. The caches hold immutable snapshots, ids and response records, never
+ * entities: a caller that changes or attaches a driver loads the managed entity by id in its own
+ * transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataLookupService {
+
+    private final DriverRepository driverRepository;
+    private final DestinationsRepository destinationsRepository;
+
+    /** The driver sending locations from this email, or null. */
+    @Cacheable(cacheNames = CacheConfig.DRIVERS_BY_EMAIL)
+    public DriverSnapshot findDriverByEmail(String email) {
+        return DriverSnapshot.of(driverRepository.findByEmail(email));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.DRIVERS_BY_NAME, key = "#p0.trim().toLowerCase()")
+    public Optional<Long> findDriverIdByName(String name) {
+        return driverRepository.findByNameIgnoreCase(name.trim()).map(d -> d.getId());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.DESTINATIONS, key = "'all'")
+    public List<DestinationResponse> getDestinations() {
+        return destinationsRepository.findAll().stream().map(DestinationResponse::from).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Destination;
+import com.example.driverevents.repository.DestinationsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory route matrix of {@link Destination#getDurationMinutes()} keyed by normalized
+ * (trimmed, case-folded) start and end location.
+ * <p>
+ * Loaded once at startup and kept current by {@code DestinationController} writes, so trip duration
+ * lookups never touch the database.
+ */
+@Slf4j
+@Service
+public class RouteDurationService {
+
+    private final DestinationsRepository destinationsRepository;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    // Rebuilt on every write; readers only ever see a complete, immutable map
+    private volatile Map<String, Integer> durations = Map.of();
+    private final Map<Long, Destination> destinationsById = new HashMap<>();
+    private final Set<String> reportedMisses = ConcurrentHashMap.newKeySet();
+
+    public RouteDurationService(DestinationsRepository destinationsRepository, MeterRegistry meterRegistry) {
+        this.destinationsRepository = destinationsRepository;
+        this.hits = Counter.builder("route.duration.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("route.duration.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        destinationsById.clear();
+        for (Destination d : destinationsRepository.findAll()) {
+            destinationsById.put(d.getId(), copyOf(d));
+        }
+        rebuild();
+        log.info("Loaded {} routes into duration matrix", durations.size());
+    }
+
+    /**
+     * @return the trip duration in minutes, or null when no destination is configured for the route
+     */
+    public Integer findDuration(String startLocation, String endLocation) {
+        String key = routeKey(startLocation, endLocation);
+        Integer minutes = durations.get(key);
+        if (minutes == null) {
+            misses.increment();
+            if (reportedMisses.add(key)) {
+                log.warn("No duration found for {} - {}", startLocation, endLocation);
+            }
+        } else {
+            hits.increment();
+        }
+        return minutes;
+    }
+
+    /**
+     * Current duration of a route for maintenance after a route was edited; not counted in the lookup
+     * metrics and not reported as a miss when the route was removed.
+     */
+    public Integer currentDuration(String startLocation, String endLocation) {
+        return durations.get(routeKey(startLocation, endLocation));
+    }
+
+    public long getMissCount() {
+        return (long) misses.count();
+    }
+
+    public synchronized void onSaved(Destination destination) {
+        destinationsById.put(destination.getId(), copyOf(destination));
+        rebuild();
+    }
+
+    public synchronized void onDeleted(Long destinationId) {
+        if (destinationsById.remove(destinationId) != null) {
+            rebuild();
+        }
+    }
+
+    public static String normalize(String location) {
+        return location == null ? "" : location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void rebuild() {
+        Map<String, Integer> matrix = new HashMap<>();
+        for (Destination d : destinationsById.values()) {
+            if (d.getDurationMinutes() != null) {
+                matrix.put(routeKey(d.getStartLocation(), d.getEndLocation()), d.getDurationMinutes());
+            }
+        }
+        durations = Map.copyOf(matrix);
+        reportedMisses.clear();
+    }
+
+    private static String routeKey(String startLocation, String endLocation) {
+        return normalize(startLocation) + '\u0000' + normalize(endLocation);
+    }
+
+    // Detached copy so later changes to a managed entity cannot leak into the matrix
+    private static Destination copyOf(Destination source) {
+        Destination d = new Destination();
+        d.setId(source.getId());
+        d.setStartLocation(source.getStartLocation());
+        d.setEndLocation(source.getEndLocation());
+        d.setDurationMinutes(source.getDurationMinutes());
+        return d;
+    }
+}
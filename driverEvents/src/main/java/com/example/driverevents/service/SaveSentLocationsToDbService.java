@@ -1,6 +1,6 @@
 package com.example.driverevents.service;
 
-import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingWindow;
 import com.example.driverevents.model.LocationUpdateFromDrivers;
 import com.example.driverevents.model.LocationUpdateToDb;
 import com.example.driverevents.repository.SentLocationsToExternalApiRepository;
@@ -17,15 +17,15 @@ public class SaveSentLocationsToDbService {
         this.sentLocationsToExternalApiRepository = sentLocationsToExternalApiRepository;
     }
 
-    public void saveLocationUpdate(Booking booking, LocationUpdateFromDrivers location) {
+    public void saveLocationUpdate(BookingWindow booking, LocationUpdateFromDrivers location) {
         LocationUpdateToDb update = new LocationUpdateToDb();
         update.setLatitude(location.getLatitude());
         update.setLongitude(location.getLongitude());
         update.setTimestamp(location.getTimestamp().atOffset(ZoneOffset.UTC));
-        update.setBookingId(booking.getId());
-        update.setBookingNumber(booking.getBookingNumber());
-        update.setVehicleId(booking.getVehicle().getId());
-        update.setVehicleRegNumber(booking.getVehicle().getRegistrationNumber());
+        update.setBookingId(booking.bookingId());
+        update.setBookingNumber(booking.bookingNumber());
+        update.setVehicleId(booking.vehicleId());
+        update.setVehicleRegNumber(booking.vehicleRegistration());
         update.setSentToExternalApi(true);
 
         sentLocationsToExternalApiRepository.save(update);
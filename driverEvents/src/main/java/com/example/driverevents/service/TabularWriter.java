@@ -0,0 +1,198 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.ExportFormat;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Writes export rows one at a time as CSV or .xlsx, without keeping the rows.
+ * <p>
+ * CSV goes straight to the output stream. The .xlsx writer keeps a window of {@link #XLSX_WINDOW} rows in
+ * memory and flushes older ones to a compressed temp file (POI SXSSF); the zip is written to the stream
+ * when the writer is closed, because the sheet XML has to be complete first.
+ */
+abstract class TabularWriter implements Closeable {
+
+    static final int XLSX_WINDOW = 100;
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    static TabularWriter open(ExportFormat format, OutputStream out, String sheetName, List<String> header)
+            throws IOException {
+        TabularWriter writer = format == ExportFormat.CSV ? new Csv(out) : new Xlsx(out, sheetName);
+        writer.row(header.toArray());
+        return writer;
+    }
+
+    abstract void row(Object... values) throws IOException;
+
+    private static final class Csv extends TabularWriter {
+
+        // same wall-clock form as the .xlsx cells
+        private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        private final Writer writer;
+        private final StringBuilder line = new StringBuilder(256);
+
+        Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            // lets Excel open Cyrillic names as UTF-8
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        void row(Object... values) throws IOException {
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(format(values[i]));
+            }
+            line.append("\r\n");
+            writer.append(line);
+        }
+
+        private static String format(Object value) {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof Number || value instanceof Boolean) {
+                return CsvCells.quote(value.toString());
+            }
+            if (value instanceof OffsetDateTime time) {
+                return time.atZoneSameInstant(Booking.BOOKING_ZONE).format(DATE_TIME);
+            }
+            if (value instanceof Instant time) {
+                return LocalDateTime.ofInstant(time, Booking.BOOKING_ZONE).format(DATE_TIME);
+            }
+            if (value instanceof LocalDateTime time) {
+                return time.format(DATE_TIME);
+            }
+            if (value instanceof LocalTime time) {
+                return time.format(TIME);
+            }
+            if (value instanceof Enum<?> e) {
+                return e.name();
+            }
+            return CsvCells.text(value.toString());
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class Xlsx extends TabularWriter {
+
+        private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook;
+        private final String sheetName;
+        private final CellStyle dateTimeStyle;
+        private final CellStyle headerStyle;
+        private Object[] header;
+        private Sheet sheet;
+        private int sheets;
+        private int rowNum;
+
+        Xlsx(OutputStream out, String sheetName) {
+            this.out = out;
+            this.sheetName = sheetName;
+            this.workbook = new SXSSFWorkbook(XLSX_WINDOW);
+            workbook.setCompressTempFiles(true);
+            this.dateTimeStyle = workbook.createCellStyle();
+            dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            this.headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+        }
+
+        @Override
+        void row(Object... values) throws IOException {
+            if (header == null) {
+                header = values;
+            }
+            // a sheet holds about a million rows; later rows continue on the next sheet under the same header
+            if (sheet == null || rowNum == MAX_ROWS) {
+                sheets++;
+                sheet = workbook.createSheet(sheets == 1 ? sheetName : sheetName + " " + sheets);
+                rowNum = 0;
+                write(header, headerStyle);
+                if (values == header) {
+                    return;
+                }
+            }
+            write(values, null);
+        }
+
+        private void write(Object[] values, CellStyle style) {
+            Row row = sheet.createRow(rowNum++);
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(i);
+                if (style != null) {
+                    cell.setCellStyle(style);
+                }
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else if (value instanceof Boolean bool) {
+                    cell.setCellValue(bool);
+                } else if (value instanceof OffsetDateTime time) {
+                    setDateTime(cell, time.atZoneSameInstant(Booking.BOOKING_ZONE).toLocalDateTime());
+                } else if (value instanceof Instant time) {
+                    setDateTime(cell, LocalDateTime.ofInstant(time, Booking.BOOKING_ZONE));
+                } else if (value instanceof LocalDateTime time) {
+                    setDateTime(cell, time);
+                } else if (value instanceof LocalTime time) {
+                    cell.setCellValue(time.format(TIME));
+                } else if (value instanceof Enum<?> e) {
+                    cell.setCellValue(e.name());
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+            }
+        }
+
+        // spreadsheet times are shown in the booking zone, like the dashboard
+        private void setDateTime(Cell cell, LocalDateTime time) {
+            cell.setCellValue(time);
+            cell.setCellStyle(dateTimeStyle);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // closing the workbook also removes the temp files behind the flushed rows
+            try (workbook) {
+                workbook.write(out);
+                out.flush();
+            }
+        }
+    }
+}
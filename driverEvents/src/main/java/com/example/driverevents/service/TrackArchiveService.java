@@ -0,0 +1,230 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.TrackPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * File store for the tracks of closed bookings, one file per booking under {@code locations.archive.dir}.
+ * <p>
+ * Layout: a fixed header (magic {@code TRK1}, booking id, point count, uncompressed length) followed by
+ * a deflated body holding three columns - timestamps (epoch millis), latitudes and longitudes (fixed-point,
+ * 1e-6 degrees). Each column is delta-encoded as zigzag varints, so a point sampled every few seconds
+ * along a road typically costs 3-5 bytes before compression.
+ */
+@Slf4j
+@Service
+public class TrackArchiveService {
+
+    private static final int MAGIC = 0x54524B31; // "TRK1"
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    // 1e-6 degrees is about 11 cm, well below GPS accuracy
+    private static final double SCALE = 1_000_000d;
+
+    private final Path root;
+
+    public TrackArchiveService(@Value("${locations.archive.dir:./data/track-archive}") String dir) {
+        this.root = Path.of(dir);
+    }
+
+    public boolean exists(long bookingId) {
+        return Files.exists(fileFor(bookingId));
+    }
+
+    /**
+     * Replaces the archive of a booking. The file is written next to its final location and moved into
+     * place, so readers see either the old or the new track, never a partial one.
+     */
+    public void write(long bookingId, List<TrackPoint> points) throws IOException {
+        byte[] raw = encode(points);
+        byte[] body = deflate(raw);
+
+        Path file = fileFor(bookingId);
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), bookingId + "-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC)
+                        .putLong(bookingId)
+                        .putInt(points.size())
+                        .putInt(raw.length)
+                        .flip();
+                ByteBuffer[] buffers = {header, ByteBuffer.wrap(body)};
+                while (buffers[1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @return the archived track in timestamp order, or empty when the booking has no archive
+     */
+    public Optional<List<TrackPoint>> read(long bookingId) throws IOException {
+        Path file = fileFor(bookingId);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a track archive: " + file);
+            }
+            long archivedId = buffer.getLong();
+            if (archivedId != bookingId) {
+                throw new IOException("Track archive " + file + " belongs to booking " + archivedId);
+            }
+            int count = buffer.getInt();
+            byte[] raw = inflate(buffer, buffer.getInt(), file);
+            return Optional.of(decode(raw, count));
+        }
+    }
+
+    public void delete(long bookingId) {
+        try {
+            Files.deleteIfExists(fileFor(bookingId));
+        } catch (IOException e) {
+            log.warn("Could not delete track archive of booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
+    static long toFixedPoint(double degrees) {
+        return Math.round(degrees * SCALE);
+    }
+
+    // Spread over 1000 directories so none of them grows unbounded
+    private Path fileFor(long bookingId) {
+        return root.resolve(String.valueOf(bookingId % 1000)).resolve(bookingId + ".trk");
+    }
+
+    private static byte[] encode(List<TrackPoint> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(points.size() * 8);
+        long previous = 0;
+        for (TrackPoint p : points) {
+            long millis = p.timestamp().toEpochMilli();
+            writeSigned(out, millis - previous);
+            previous = millis;
+        }
+        previous = 0;
+        for (TrackPoint p : points) {
+            long latitude = toFixedPoint(p.latitude());
+            writeSigned(out, latitude - previous);
+            previous = latitude;
+        }
+        previous = 0;
+        for (TrackPoint p : points) {
+            long longitude = toFixedPoint(p.longitude());
+            writeSigned(out, longitude - previous);
+            previous = longitude;
+        }
+        return out.toByteArray();
+    }
+
+    private static List<TrackPoint> decode(byte[] raw, int count) {
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        long[] millis = readColumn(in, count);
+        long[] latitudes = readColumn(in, count);
+        long[] longitudes = readColumn(in, count);
+
+        List<TrackPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new TrackPoint(Instant.ofEpochMilli(millis[i]), latitudes[i] / SCALE, longitudes[i] / SCALE));
+        }
+        return points;
+    }
+
+    private static long[] readColumn(ByteBuffer in, int count) {
+        long[] values = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readSigned(in);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    private static long readSigned(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Inflates straight from the mapped file, without copying the compressed body onto the heap
+    private static byte[] inflate(ByteBuffer body, int rawLength, Path file) throws IOException {
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body);
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != rawLength) {
+                throw new IOException("Truncated track archive: " + file);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt track archive: " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.driverevents.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rolls forwarded location points up into booking_track_summaries (one row per booking and UTC day)
+ * before the raw rows leave the database, either as a dropped partition or as an archived track.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrackSummaryService {
+
+    private static final String ROLLUP = """
+            INSERT INTO booking_track_summaries (booking_id, track_day, booking_number, point_count, first_at, last_at,
+                                                 min_latitude, max_latitude, min_longitude, max_longitude,
+                                                 distance_meters)
+            SELECT booking_id, track_day, max(booking_number), count(*), min(timestamp), max(timestamp),
+                   min(latitude), max(latitude), min(longitude), max(longitude), COALESCE(sum(step), 0)
+            FROM (
+                SELECT booking_id, booking_number, timestamp, latitude, longitude,
+                       (timestamp AT TIME ZONE 'UTC')::date AS track_day,
+                       6371000 * 2 * asin(sqrt(
+                               power(sin(radians(latitude - lag(latitude) OVER w) / 2), 2)
+                               + cos(radians(lag(latitude) OVER w)) * cos(radians(latitude))
+                                 * power(sin(radians(longitude - lag(longitude) OVER w) / 2), 2))) AS step
+                FROM %s
+                WHERE booking_id IS NOT NULL %s
+                WINDOW w AS (PARTITION BY booking_id, (timestamp AT TIME ZONE 'UTC')::date ORDER BY timestamp)
+            ) points
+            GROUP BY booking_id, track_day
+            ON CONFLICT (booking_id, track_day) DO UPDATE SET
+                booking_number = EXCLUDED.booking_number,
+                point_count = EXCLUDED.point_count,
+                first_at = EXCLUDED.first_at,
+                last_at = EXCLUDED.last_at,
+                min_latitude = EXCLUDED.min_latitude,
+                max_latitude = EXCLUDED.max_latitude,
+                min_longitude = EXCLUDED.min_longitude,
+                max_longitude = EXCLUDED.max_longitude,
+                distance_meters = EXCLUDED.distance_meters
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param table a location_updates partition; the name must come from the catalog, not from input
+     */
+    public int rollUpPartition(String table) {
+        return jdbcTemplate.update(ROLLUP.formatted(table, ""));
+    }
+
+    public int rollUpBooking(long bookingId) {
+        return jdbcTemplate.update(ROLLUP.formatted("location_updates", "AND booking_id = ?"), bookingId);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.driverevents.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reads the first sheet of an .xlsx file row by row through POI's event API (SAX over the sheet XML),
+ * so only the current row is held in memory instead of a full {@code XSSFWorkbook}.
+ * <p>
+ * Cells keep the distinction the usermodel makes between strings, numbers (with their date formatting),
+ * formulas and other types, so parsing code can treat them as it would {@code Cell}s.
+ */
+final class XlsxRowReader {
+
+    enum CellKind { STRING, NUMERIC, FORMULA, OTHER }
+
+    record SheetCell(CellKind kind, String text, double number, boolean dateFormatted) {
+
+        // the 1900/1904 date system only shifts the date part, never the time of day
+        LocalTime timeValue() {
+            return DateUtil.getLocalDateTime(number).toLocalTime();
+        }
+    }
+
+    @FunctionalInterface
+    interface RowHandler {
+        /**
+         * @param rowNum zero-based row number
+         * @param cells  the row's cells by zero-based column index; missing cells are absent
+         * @return false to stop reading
+         */
+        boolean row(int rowNum, Map<Integer, SheetCell> cells) throws Exception;
+    }
+
+    private XlsxRowReader() {
+    }
+
+    static void read(Path file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(strings, styles, handler));
+                parser.parse(new InputSource(sheet));
+            } catch (Stop stop) {
+                // the handler asked to stop
+            }
+        } catch (HandlerFailure e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Not a readable .xlsx file: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Stop extends SAXException {
+        Stop() {
+            super("stopped");
+        }
+    }
+
+    private static final class HandlerFailure extends RuntimeException {
+        HandlerFailure(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final StylesTable styles;
+        private final RowHandler handler;
+
+        private final StringBuilder value = new StringBuilder();
+        private Map<Integer, SheetCell> cells = new HashMap<>();
+        private int rowNum = -1;
+        private int column;
+        private String type;
+        private String style;
+        private boolean formula;
+        private boolean inValue;
+
+        SheetHandler(ReadOnlySharedStringsTable strings, StylesTable styles, RowHandler handler) {
+            this.strings = strings;
+            this.styles = styles;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String r = attributes.getValue("r");
+                    rowNum = r == null ? rowNum + 1 : Integer.parseInt(r) - 1;
+                    cells = new HashMap<>();
+                    column = -1;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    column = ref == null ? column + 1 : new CellReference(ref).getCol();
+                    type = attributes.getValue("t");
+                    style = attributes.getValue("s");
+                    formula = false;
+                    value.setLength(0);
+                }
+                case "f" -> formula = true;
+                // <v> holds the value, <t> the text of an inline string
+                case "v", "t" -> inValue = true;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v", "t" -> inValue = false;
+                case "c" -> cells.put(column, toCell());
+                case "row" -> {
+                    boolean more;
+                    try {
+                        more = handler.row(rowNum, cells);
+                    } catch (Exception e) {
+                        throw new HandlerFailure(e);
+                    }
+                    if (!more) {
+                        throw new Stop();
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        private SheetCell toCell() {
+            String text = value.toString();
+            if (formula) {
+                return new SheetCell(CellKind.FORMULA, text, 0, false);
+            }
+            if (type == null || type.equals("n")) {
+                if (text.isEmpty()) {
+                    return new SheetCell(CellKind.OTHER, "", 0, false);
+                }
+                double number = Double.parseDouble(text);
+                return new SheetCell(CellKind.NUMERIC, text, number, isDateFormatted(number));
+            }
+            return switch (type) {
+                case "s" -> new SheetCell(CellKind.STRING,
+                        strings.getItemAt(Integer.parseInt(text)).getString(), 0, false);
+                case "inlineStr", "str" -> new SheetCell(CellKind.STRING, text, 0, false);
+                default -> new SheetCell(CellKind.OTHER, text, 0, false); // b, e
+            };
+        }
+
+        // Same test as DateUtil.isCellDateFormatted, from the cell's style instead of a Cell
+        private boolean isDateFormatted(double number) {
+            if (style == null || styles == null || !DateUtil.isValidExcelDate(number)) {
+                return false;
+            }
+            XSSFCellStyle cellStyle = styles.getStyleAt(Integer.parseInt(style));
+            if (cellStyle == null) {
+                return false;
+            }
+            short formatIndex = cellStyle.getDataFormat();
+            String format = cellStyle.getDataFormatString();
+            if (format == null) {
+                format = BuiltinFormats.getBuiltinFormat(formatIndex);
+            }
+            return format != null && DateUtil.isADateFormat(formatIndex, format);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+-- Typed start/end instants for bookings.
+-- Needed where Hibernate runs with ddl-auto=validate (prod); dev picks the columns up through ddl-auto=update
+-- and BookingScheduleService backfills them on startup.
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS start_at timestamp(6) with time zone;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS end_at timestamp(6) with time zone;
+
+UPDATE bookings
+SET start_at = (to_date(booking_date, 'DD.MM.YYYY') + start_time) AT TIME ZONE 'Europe/Sofia'
+WHERE start_at IS NULL
+  AND start_time IS NOT NULL
+  AND booking_date ~ '^[0-9]{2}\.[0-9]{2}\.[0-9]{4}$';
+
+UPDATE bookings b
+SET end_at = b.start_at + make_interval(mins => d.duration_minutes)
+FROM destinations d
+WHERE b.end_at IS NULL
+  AND b.start_at IS NOT NULL
+  AND lower(trim(b.start_location)) = lower(trim(d.start_location))
+  AND lower(trim(b.destination)) = lower(trim(d.end_location));
+
+CREATE INDEX IF NOT EXISTS idx_bookings_driver_start_at ON bookings (driver_id, start_at);
+CREATE INDEX IF NOT EXISTS idx_bookings_start_at ON bookings (start_at);
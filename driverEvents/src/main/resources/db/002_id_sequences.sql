@@ -0,0 +1,11 @@
+-- Pooled sequences for the high-volume tables (allocationSize = 50 in the entity mappings).
+-- Needed where Hibernate runs with ddl-auto=validate (prod); dev creates them through ddl-auto=update
+-- and IdSequenceAligner moves them past existing ids on startup.
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS drivers_locations_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS location_updates_seq INCREMENT BY 50;
+
+SELECT setval('bookings_seq', GREATEST((SELECT MAX(id) FROM bookings), 1), true);
+SELECT setval('drivers_locations_seq', GREATEST((SELECT MAX(id) FROM drivers_locations), 1), true);
+SELECT setval('location_updates_seq', GREATEST((SELECT MAX(id) FROM location_updates), 1), true);
@@ -0,0 +1,89 @@
+-- Day partitions for drivers_locations (local booking-zone days, timestamp without time zone) and
+-- location_updates (UTC days, timestamptz). Run once in a maintenance window; afterwards
+-- LocationPartitionService creates upcoming partitions and retires old ones.
+-- Partitions are named <table>_pYYYYMMDD; the DEFAULT partition only catches stray timestamps.
+
+BEGIN;
+
+-- drivers_locations ---------------------------------------------------------------------------------
+
+ALTER TABLE drivers_locations RENAME TO drivers_locations_old;
+
+CREATE TABLE drivers_locations (LIKE drivers_locations_old INCLUDING DEFAULTS)
+    PARTITION BY RANGE (timestamp);
+ALTER TABLE drivers_locations ADD PRIMARY KEY (id, timestamp);
+
+DO $$
+DECLARE
+    d date;
+BEGIN
+    FOR d IN
+        SELECT generate_series(
+                       COALESCE((SELECT min(timestamp)::date FROM drivers_locations_old),
+                                (now() AT TIME ZONE 'Europe/Sofia')::date),
+                       (now() AT TIME ZONE 'Europe/Sofia')::date + 7,
+                       interval '1 day')::date
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF drivers_locations FOR VALUES FROM (%L) TO (%L)',
+                       'drivers_locations_p' || to_char(d, 'YYYYMMDD'), d, d + 1);
+    END LOOP;
+END $$;
+
+CREATE TABLE drivers_locations_default PARTITION OF drivers_locations DEFAULT;
+
+INSERT INTO drivers_locations SELECT * FROM drivers_locations_old WHERE timestamp IS NOT NULL;
+DROP TABLE drivers_locations_old;
+
+-- keeps the 5 s poll for unprocessed points on a tiny index
+CREATE INDEX idx_drivers_locations_unsent ON drivers_locations (timestamp) WHERE sent_to_api IS NULL;
+
+-- location_updates ----------------------------------------------------------------------------------
+
+ALTER TABLE location_updates RENAME TO location_updates_old;
+
+CREATE TABLE location_updates (LIKE location_updates_old INCLUDING DEFAULTS)
+    PARTITION BY RANGE (timestamp);
+ALTER TABLE location_updates ADD PRIMARY KEY (id, timestamp);
+
+DO $$
+DECLARE
+    d date;
+BEGIN
+    FOR d IN
+        SELECT generate_series(
+                       COALESCE((SELECT (min(timestamp) AT TIME ZONE 'UTC')::date FROM location_updates_old),
+                                (now() AT TIME ZONE 'UTC')::date),
+                       (now() AT TIME ZONE 'UTC')::date + 7,
+                       interval '1 day')::date
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF location_updates FOR VALUES FROM (%L) TO (%L)',
+                       'location_updates_p' || to_char(d, 'YYYYMMDD'),
+                       d::text || ' 00:00:00+00', (d + 1)::text || ' 00:00:00+00');
+    END LOOP;
+END $$;
+
+CREATE TABLE location_updates_default PARTITION OF location_updates DEFAULT;
+
+INSERT INTO location_updates SELECT * FROM location_updates_old WHERE timestamp IS NOT NULL;
+DROP TABLE location_updates_old;
+
+CREATE INDEX idx_location_updates_booking ON location_updates (booking_id);
+
+-- rollups kept after raw partitions are dropped -----------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS booking_track_summaries (
+    booking_id      bigint           NOT NULL,
+    track_day       date             NOT NULL,
+    booking_number  varchar(255),
+    point_count     bigint           NOT NULL,
+    first_at        timestamp(6) with time zone,
+    last_at         timestamp(6) with time zone,
+    min_latitude    double precision,
+    max_latitude    double precision,
+    min_longitude   double precision,
+    max_longitude   double precision,
+    distance_meters double precision,
+    PRIMARY KEY (booking_id, track_day)
+);
+
+COMMIT;
@@ -0,0 +1,6 @@
+-- Track reads (GET /api/bookings/{id}/track, the track archiver) fetch one booking's points in time order.
+-- The composite index serves both the filter and the ORDER BY, so no sort step is needed.
+-- Works on the plain and on the partitioned (003) table alike.
+
+CREATE INDEX IF NOT EXISTS idx_location_updates_booking_timestamp ON location_updates (booking_id, timestamp);
+DROP INDEX IF EXISTS idx_location_updates_booking;
@@ -0,0 +1,6 @@
+-- Content hash of the sheet row a booking was last imported from (see BookingImportService).
+-- Re-uploads skip rows whose hash is unchanged, so they are neither rewritten nor re-synced.
+-- Needed where Hibernate runs with ddl-auto=validate (prod); existing rows start without a hash and are
+-- written once more on their next import.
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS import_fingerprint varchar(64);
@@ -0,0 +1,18 @@
+-- Per-booking, per-day rollups written with plain SQL by TrackSummaryService (partition retirement, track
+-- archiving). Only creates the table, so unlike 003 it is safe to run at any time and should run before
+-- the track archiver is deployed. Same definition as in 003; whichever runs first creates it.
+
+CREATE TABLE IF NOT EXISTS booking_track_summaries (
+    booking_id      bigint           NOT NULL,
+    track_day       date             NOT NULL,
+    booking_number  varchar(255),
+    point_count     bigint           NOT NULL,
+    first_at        timestamp(6) with time zone,
+    last_at         timestamp(6) with time zone,
+    min_latitude    double precision,
+    max_latitude    double precision,
+    min_longitude   double precision,
+    max_longitude   double precision,
+    distance_meters double precision,
+    PRIMARY KEY (booking_id, track_day)
+);
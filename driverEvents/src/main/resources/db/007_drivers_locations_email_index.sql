@@ -0,0 +1,5 @@
+-- Booking purges (BookingPurgeService) look up the drivers_locations of each booking's driver by lower(email)
+-- within the booking window. Works on the plain and on the partitioned (003) table alike; on the partitioned
+-- table the index is built on every partition in one statement, so run it outside peak hours.
+
+CREATE INDEX IF NOT EXISTS idx_drivers_locations_email_timestamp ON drivers_locations (lower(email), timestamp);
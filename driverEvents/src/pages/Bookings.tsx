@@ -1,12 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import {format, isValid, parse} from 'date-fns';
+import {addDays, format, isValid, parse} from 'date-fns';
 import {
     Plus, Search, Filter, Calendar, MapPin, User, Truck,
     CheckCircle, XCircle, AlertTriangle, Trash2, Eye
 } from 'lucide-react';
 import { toast } from 'react-toastify';
-import { fetchBookings, deleteBooking, Booking } from '../services/bookingService';
+import { fetchBookings, deleteBooking, Booking, BookingFilters } from '../services/bookingService';
 
 const Bookings: React.FC = () => {
     const [bookings, setBookings] = useState<Booking[]>([]);
@@ -14,45 +14,52 @@ const Bookings: React.FC = () => {
     const [isLoading, setIsLoading] = useState<boolean>(true);
     const [searchTerm, setSearchTerm] = useState<string>('');
     const [statusFilter, setStatusFilter] = useState<string>('all');
-    const [dateFilter, setDateFilter] = useState<string>('all');
+    const [dateFilter, setDateFilter] = useState<string>('upcoming');
     const [selectedBookings, setSelectedBookings] = useState<string[]>([]);
-    const [page, setPage] = useState(1);
-    const [pageSize] = useState(30);            // change bookings per page here!!!
-
-    useEffect(() => {
-        const loadBookings = async () => {
-            try {
-                const res = await fetch(`/api/bookings?page=${page}&size=${pageSize}`);
-
-                if (!res.ok) {
-                    const errorText = await res.text();                         // Read raw response
-                    console.error(`Server error ${res.status}:`, errorText);
-                    return;
-                }
-
-                const data = await res.json();
-                setBookings(data);
-            } catch (err) {
-                console.error('Fetch failed:', err);
-            }
-        };
-
-        loadBookings();
-    }, [page]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [isLoadingMore, setIsLoadingMore] = useState<boolean>(false);
 
+    // date range and sync state are filtered by the server, one page at a time
     useEffect(() => {
         loadBookings();
-    }, []);
+    }, [statusFilter, dateFilter]);
 
     useEffect(() => {
         filterBookings();
     }, [bookings, searchTerm, statusFilter, dateFilter]);
 
+    const serverFilters = (): BookingFilters => {
+        const today = new Date();
+        const day = (offset: number) => format(addDays(today, offset), 'yyyy-MM-dd');
+        const filters: BookingFilters = {};
+        switch (dateFilter) {
+            case 'today':
+                Object.assign(filters, { from: day(0), to: day(0), direction: 'asc' });
+                break;
+            case 'tomorrow':
+                Object.assign(filters, { from: day(1), to: day(1), direction: 'asc' });
+                break;
+            case 'upcoming':
+                Object.assign(filters, { from: day(0), direction: 'asc' });
+                break;
+            case 'this-week':
+                Object.assign(filters, { from: day(0), to: day(6), direction: 'asc' });
+                break;
+            case 'past':
+                Object.assign(filters, { to: day(-1) });
+                break;
+        }
+        if (statusFilter === 'synced') filters.synced = true;
+        if (statusFilter === 'unsynced') filters.synced = false;
+        return filters;
+    };
+
     const loadBookings = async () => {
         try {
             setIsLoading(true);
-            const data = await fetchBookings();
-            setBookings(data);
+            const page = await fetchBookings(serverFilters());
+            setBookings(page.items);
+            setNextCursor(page.nextCursor);
         } catch (error) {
             toast.error('Failed to load bookings');
             console.error(error);
@@ -61,6 +68,21 @@ const Bookings: React.FC = () => {
         }
     };
 
+    const loadMoreBookings = async () => {
+        if (!nextCursor) return;
+        try {
+            setIsLoadingMore(true);
+            const page = await fetchBookings(serverFilters(), nextCursor);
+            setBookings(prev => [...prev, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            toast.error('Failed to load more bookings');
+            console.error(error);
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
+
     const toggleBookingSelection = (id: string) => {
         setSelectedBookings(prev =>
             prev.includes(id) ? prev.filter(b => b !== id) : [...prev, id]
@@ -592,21 +614,17 @@ const Bookings: React.FC = () => {
                     </table>
                 </div>
 
-                <div className="flex justify-between items-center mt-4">
-                    <button
-                        onClick={() => setPage(p => Math.max(p - 1, 1))}
-                        className="px-3 py-1 bg-gray-200 rounded hover:bg-gray-300"
-                    >
-                        Previous Page
-                    </button>
-                    <span>Page {page}</span>
-                    <button
-                        onClick={() => setPage(p => p + 1)}
-                        className="px-3 py-1 bg-gray-200 rounded hover:bg-gray-300"
-                    >
-                        Next Page
-                    </button>
-                </div>
+                {nextCursor && (
+                    <div className="flex justify-center mt-4">
+                        <button
+                            onClick={loadMoreBookings}
+                            disabled={isLoadingMore}
+                            className="px-3 py-1 bg-gray-200 rounded hover:bg-gray-300 disabled:opacity-50"
+                        >
+                            {isLoadingMore ? 'Loading...' : 'Load More'}
+                        </button>
+                    </div>
+                )}
 
                 {filteredBookings.length === 0 && (
                     <div className="text-center py-12">
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { Clock, MapPin, ChevronRight, Truck, User, AlertCircle, CheckCircle } from 'lucide-react';
-import { format } from 'date-fns';
+import { addDays, format } from 'date-fns';
 import { fetchBookings, Booking } from '../services/bookingService';
 import BookingList from '../components/BookingList';
 import StatusCard from '../components/StatusCard';
@@ -15,8 +15,14 @@ const Dashboard: React.FC = () => {
         const loadBookings = async () => {
             try {
                 setIsLoading(true);
-                const data = await fetchBookings();
-                setBookings(data);
+                // the dashboard covers the coming week, not the whole booking history
+                const today = new Date();
+                const page = await fetchBookings({
+                    from: format(today, 'yyyy-MM-dd'),
+                    to: format(addDays(today, 6), 'yyyy-MM-dd'),
+                    direction: 'asc',
+                }, null, 500);
+                setBookings(page.items);
             } catch (err) {
                 setError('Failed to load bookings. Please try again later.');
                 console.error(err);
@@ -75,7 +81,7 @@ const Dashboard: React.FC = () => {
                 <>
                     <div className="grid grid-cols-1 gap-6 sm:grid-cols-2 lg:grid-cols-4">
                         <StatusCard
-                            title="Total Bookings"
+                            title="Bookings This Week"
                             value={totalBookings}
                             icon={<Clock className="h-6 w-6 text-blue-500" />}
                             bgColor="bg-blue-50"
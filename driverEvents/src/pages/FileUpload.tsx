@@ -238,13 +238,13 @@ const FileUpload: React.FC = () => {
                                                             ref={fileInputRef}
                                                             className="sr-only"
                                                             onChange={handleFileChange}
-                                                            accept=".xlsx,.xls"
+                                                            accept=".xlsx,.xls,.csv"
                                                         />
                                                     </label>
                                                     <p className="pl-1">or drag and drop</p>
                                                 </div>
                                                 <p className="text-xs text-gray-500">
-                                                    Excel files only (.xlsx, .xls)
+                                                    Excel or CSV files (.xlsx, .xls, .csv)
                                                 </p>
                                             </div>
                                         )}
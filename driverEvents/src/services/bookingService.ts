@@ -37,22 +37,47 @@ const normalizeBookingDate = (dateStr: string | null | undefined): Date | null =
     return parse(dateStr, 'dd.MM.yyyy', new Date());
 };
 
-export const fetchBookings = async (): Promise<Booking[]> => {
-    const response = await fetch(`/api/bookings`);
-    if (!response.ok) throw new Error('Failed to fetch bookings');
+export interface BookingFilters {
+    from?: string;          // yyyy-MM-dd
+    to?: string;            // yyyy-MM-dd, inclusive
+    status?: string;
+    driverId?: number;
+    synced?: boolean;
+    direction?: 'asc' | 'desc';     // by start time, newest first by default
+}
 
-    const rawBookings = await response.json();
+export interface BookingPage {
+    items: Booking[];
+    nextCursor: string | null;
+}
 
-    return rawBookings.map((booking: Booking) => {
-        return {
-            ...booking,
-            bookingDate: typeof booking.bookingDate === 'string'
-                ? normalizeBookingDate(booking.bookingDate)
-                : booking.bookingDate,
-            startTime: booking.startTime.toString(),
-        };
+const PAGE_SIZE = 100;
+
+// One page of bookings; pass the returned nextCursor to get the next one
+export const fetchBookings = async (filters: BookingFilters = {}, cursor?: string | null,
+                                    limit: number = PAGE_SIZE): Promise<BookingPage> => {
+    const params = new URLSearchParams({ limit: String(limit) });
+    Object.entries(filters).forEach(([key, value]) => {
+        if (value !== undefined && value !== null && value !== '') params.set(key, String(value));
     });
+    if (cursor) params.set('cursor', cursor);
 
+    const response = await fetch(`/api/bookings?${params.toString()}`);
+    if (!response.ok) throw new Error('Failed to fetch bookings');
+
+    const page: BookingPage = await response.json();
+    return {
+        nextCursor: page.nextCursor,
+        items: page.items.map((booking: Booking) => {
+            return {
+                ...booking,
+                bookingDate: typeof booking.bookingDate === 'string'
+                    ? normalizeBookingDate(booking.bookingDate)
+                    : booking.bookingDate,
+                startTime: booking.startTime.toString(),
+            };
+        }),
+    };
 };
 
 export const getBookingById = async (id: string): Promise<Booking> => {
@@ -103,7 +128,34 @@ export const assignDriverToBooking = async (bookingId: string, driverId: string)
     return await response.json();
 };
 
-export const processBulkBookings = async (file: File): Promise<{ message: string; bookingsCreated: number }> => {
+export interface ImportJobStatus {
+    jobId: string;
+    fileName: string;
+    state: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+    rowsParsed: number;
+    inserted: number;
+    updated: number;
+    skipped: number;
+    failed: number;
+    submittedAt: string;
+    startedAt: string | null;
+    finishedAt: string | null;
+    message: string | null;
+}
+
+export const getImportJob = async (jobId: string): Promise<ImportJobStatus> => {
+    const response = await fetch(`/api/bookings/imports/${jobId}`);
+    if (!response.ok) throw new Error('Failed to fetch import status');
+    return await response.json();
+};
+
+export const importErrorsUrl = (jobId: string) => `/api/bookings/imports/${jobId}/errors`;
+
+// Uploads are imported in the background; this polls the job until it finishes
+export const processBulkBookings = async (
+    file: File,
+    onProgress?: (job: ImportJobStatus) => void,
+): Promise<{ message: string; bookingsCreated: number; job: ImportJobStatus; errorsUrl: string }> => {
     const formData = new FormData();
     formData.append('file', file);
 
@@ -113,7 +165,23 @@ export const processBulkBookings = async (file: File): Promise<{ message: string
     });
 
     if (!response.ok) throw new Error('Failed to process file');
-    return await response.json();
+    const { jobId } = await response.json();
+
+    let job = await getImportJob(jobId);
+    while (job.state === 'QUEUED' || job.state === 'RUNNING') {
+        onProgress?.(job);
+        await new Promise(resolve => setTimeout(resolve, 1000));
+        job = await getImportJob(jobId);
+    }
+    onProgress?.(job);
+    if (job.state === 'FAILED') throw new Error(job.message || 'Import failed');
+
+    return {
+        message: 'File processed successfully',
+        bookingsCreated: job.inserted + job.updated,
+        job,
+        errorsUrl: importErrorsUrl(jobId),
+    };
 };
 
 export const syncWithApi = async (bookingId: string): Promise<Booking> => {
@@ -2,17 +2,57 @@ import { Client, StompSubscription } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 
 export interface LocationUpdate {
+    driverId: number;
     email: string;
     latitude: number;
     longitude: number;
     timestamp: string;
 }
 
+type LocationCallback = (update: LocationUpdate) => void;
+
+// A driver row of an aggregated frame; frames carry ids only
+export interface FramePosition {
+    driverId: number;
+    latitude: number;
+    longitude: number;
+    timestamp: string;
+}
+
+// removed: drivers whose last position got too old, to be taken off the map; a key frame replaces everything
+type FrameCallback = (positions: FramePosition[], keyFrame: boolean, removed: number[]) => void;
+
+// Wire format of /topic/location/frames, see LocationFrame on the server
+interface LocationFrame {
+    s: number;
+    k: boolean;
+    t: number;
+    d: number[][];
+    r: number[];
+}
+
+const FRAMES_TOPIC = '/topic/location/frames';
+const KEY_FRAME_DESTINATION = '/app/location/frames';
+const COORDINATE_SCALE = 1e5;
+
+// One STOMP subscription per topic, shared by every callback watching that topic
+interface TopicEntry {
+    callbacks: Set<LocationCallback>;
+    subscription: StompSubscription | null;
+}
+
+const driverTopic = (driverId: string | number) => `/topic/location/driver/${driverId}`;
+const bookingTopic = (bookingId: string | number) => `/topic/location/booking/${bookingId}`;
+
 class LocationService {
     private client: Client | null = null;
-    private globalSubscription: StompSubscription | null = null;
-    private callbacks: Map<string, (update: LocationUpdate) => void> = new Map();
+    private topics: Map<string, TopicEntry> = new Map();
     private isConnecting = false;
+    private frameCallbacks: Set<FrameCallback> = new Set();
+    private frameSubscriptions: StompSubscription[] = [];
+    // Sequence of the last applied frame; null until a key frame arrives
+    private frameSeq: number | null = null;
+    private pendingFrames: LocationFrame[] = [];
 
     connect() {
         // Don't reconnect if already connected
@@ -34,13 +74,19 @@ class LocationService {
 
             onConnect: () => {
                 this.isConnecting = false;
-                // Subscribe to the SINGLE topic that receives ALL driver updates
-                this.subscribeToAllDrivers();
+                // (Re)subscribe to every watched topic; the server only sends to topics with subscribers
+                this.topics.forEach((_, topic) => this.subscribe(topic));
+                this.subscribeFrames();
             },
 
             onDisconnect: () => {
                 this.isConnecting = false;
-                this.globalSubscription = null;
+                this.dropSubscriptions();
+            },
+
+            onWebSocketClose: () => {
+                // subscriptions die with the socket and are renewed on reconnect
+                this.dropSubscriptions();
             },
 
             onStompError: (frame) => {
@@ -58,71 +104,161 @@ class LocationService {
         this.client.activate();
     }
 
-    private subscribeToAllDrivers() {
-        if (!this.client?.connected) {
-            console.error('Cannot subscribe: client not connected');
-            return;
-        }
-
-        if (this.globalSubscription) {
-            // console.log('Already subscribed to /topic/location');
+    private subscribe(topic: string) {
+        const entry = this.topics.get(topic);
+        if (!entry || entry.subscription || !this.client?.connected) {
             return;
         }
 
         try {
-            // Subscribe to the single topic that receives ALL driver location updates
-            const topic = '/topic/location';
-
-            this.globalSubscription = this.client.subscribe(topic, (message) => {
+            entry.subscription = this.client.subscribe(topic, (message) => {
                 try {
                     const update = JSON.parse(message.body) as LocationUpdate;
-                    // console.log('📍 PARSED Location update:', update);
-                    // console.log('   - Email:', update.email);
-                    // console.log('   - Lat/Lng:', update.latitude, update.longitude);
-                    // console.log('   - Timestamp:', update.timestamp);
-                    // console.log('📍 Location update received:', update);
-
-                    // Call the callback for this specific driver
-                    const callback = this.callbacks.get(update.email);
-                    if (callback) {
-                        callback(update);
-                    } else {
-                        console.log(`No callback registered for driver: ${update.email}`);
-                    }
+                    this.topics.get(topic)?.callbacks.forEach((callback) => callback(update));
                 } catch (error) {
                     console.error('Failed to parse location update:', error, message.body);
                 }
             });
+        } catch (error) {
+            console.error(`Failed to subscribe to ${topic}:`, error);
+        }
+    }
 
-            // console.log(`✅ Subscribed to ALL drivers`);
+    private dropSubscriptions() {
+        this.topics.forEach((entry) => {
+            entry.subscription = null;
+        });
+        this.frameSubscriptions = [];
+    }
+
+    private subscribeFrames() {
+        if (this.frameCallbacks.size === 0 || this.frameSubscriptions.length > 0 || !this.client?.connected) {
+            return;
+        }
+        this.frameSeq = null;
+        this.pendingFrames = [];
+
+        try {
+            // deltas first, then the key frame they apply to; deltas arriving before it wait
+            const deltas = this.client.subscribe(FRAMES_TOPIC, (message) => this.onFrame(message.body));
+            const keyFrame = this.client.subscribe(KEY_FRAME_DESTINATION, (message) => {
+                keyFrame.unsubscribe();
+                this.frameSubscriptions = this.frameSubscriptions.filter((s) => s !== keyFrame);
+                this.onFrame(message.body);
+            });
+            this.frameSubscriptions = [deltas, keyFrame];
+        } catch (error) {
+            console.error('Failed to subscribe to location frames:', error);
+        }
+    }
 
+    private onFrame(body: string) {
+        let frame: LocationFrame;
+        try {
+            frame = JSON.parse(body) as LocationFrame;
         } catch (error) {
-            console.error('Failed to subscribe to location updates:', error);
+            console.error('Failed to parse location frame:', error, body);
+            return;
         }
+
+        if (frame.k) {
+            if (this.frameSeq !== null && frame.s < this.frameSeq) {
+                return;
+            }
+            this.applyFrame(frame);
+            const pending = this.pendingFrames;
+            this.pendingFrames = [];
+            pending.filter((f) => f.s > frame.s).forEach((f) => this.applyFrame(f));
+        } else if (this.frameSeq === null) {
+            this.pendingFrames.push(frame);
+        } else if (frame.s > this.frameSeq) {
+            this.applyFrame(frame);
+        }
+    }
+
+    private applyFrame(frame: LocationFrame) {
+        this.frameSeq = frame.s;
+        const positions = frame.d.map(([driverId, latitude, longitude, age]) => ({
+            driverId,
+            latitude: latitude / COORDINATE_SCALE,
+            longitude: longitude / COORDINATE_SCALE,
+            timestamp: new Date(frame.t - age * 1000).toISOString(),
+        }));
+        const removed = frame.r ?? [];
+        this.frameCallbacks.forEach((callback) => callback(positions, frame.k, removed));
     }
 
-    registerCallback(driverEmail: string, callback: (update: LocationUpdate) => void) {
-        this.callbacks.set(driverEmail, callback);
+    private watch(topic: string, callback: LocationCallback): () => void {
+        let entry = this.topics.get(topic);
+        if (!entry) {
+            entry = { callbacks: new Set(), subscription: null };
+            this.topics.set(topic, entry);
+        }
+        entry.callbacks.add(callback);
 
-        // Connect if not already connected
+        // Connect if not already connected; onConnect subscribes
         if (!this.client?.connected && !this.isConnecting) {
             this.connect();
+        } else {
+            this.subscribe(topic);
         }
+
+        return () => this.unwatch(topic, callback);
     }
 
-    unregisterCallback(driverEmail: string) {
-        this.callbacks.delete(driverEmail);
+    private unwatch(topic: string, callback: LocationCallback) {
+        const entry = this.topics.get(topic);
+        if (!entry) {
+            return;
+        }
+        entry.callbacks.delete(callback);
+        if (entry.callbacks.size === 0) {
+            if (entry.subscription && this.client?.connected) {
+                entry.subscription.unsubscribe();
+            }
+            this.topics.delete(topic);
+        }
     }
 
-    disconnect() {
-        if (this.client) {
-            // Unsubscribe from the global topic
-            if (this.globalSubscription) {
-                this.globalSubscription.unsubscribe();
-                this.globalSubscription = null;
+    /** Live positions of one driver. Returns a function that stops watching. */
+    watchDriver(driverId: string | number, callback: LocationCallback): () => void {
+        return this.watch(driverTopic(driverId), callback);
+    }
+
+    /** Live positions of the driver assigned to a booking, while the booking is active. */
+    watchBooking(bookingId: string | number, callback: LocationCallback): () => void {
+        return this.watch(bookingTopic(bookingId), callback);
+    }
+
+    /**
+     * Every driver, as one frame per server tick with the drivers that moved or were removed; the first
+     * call back is a full key frame. Returns a function that stops watching.
+     */
+    watchFrames(callback: FrameCallback): () => void {
+        this.frameCallbacks.add(callback);
+
+        if (!this.client?.connected && !this.isConnecting) {
+            this.connect();
+        } else {
+            this.subscribeFrames();
+        }
+
+        return () => {
+            this.frameCallbacks.delete(callback);
+            if (this.frameCallbacks.size === 0) {
+                if (this.client?.connected) {
+                    this.frameSubscriptions.forEach((subscription) => subscription.unsubscribe());
+                }
+                this.frameSubscriptions = [];
             }
+        };
+    }
 
-            this.callbacks.clear();
+    disconnect() {
+        if (this.client) {
+            this.topics.clear();
+            this.frameCallbacks.clear();
+            this.frameSubscriptions = [];
             this.client.deactivate();
             this.client = null;
             this.isConnecting = false;
@@ -135,8 +271,12 @@ class LocationService {
     }
 
     getActiveCallbacks(): number {
-        return this.callbacks.size;
+        let count = this.frameCallbacks.size;
+        this.topics.forEach((entry) => {
+            count += entry.callbacks.size;
+        });
+        return count;
     }
 }
 
-export const locationService = new LocationService();
\ No newline at end of file
+export const locationService = new LocationService();
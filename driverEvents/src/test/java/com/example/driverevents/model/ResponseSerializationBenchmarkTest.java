@@ -0,0 +1,70 @@
+package com.example.driverevents.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes and CPU time per booking list response of {@link ResponseSerializationTest#bookings}: entities
+ * (the previous controller output), response records, and response records with Blackbird. Run with
+ * {@code mvn test -Pbenchmark}; results are printed, not asserted.
+ */
+@Tag("benchmark")
+class ResponseSerializationBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ROUNDS = 2_000;
+
+    @Test
+    void bytesAndCpuPerResponse() throws Exception {
+        List<Booking> entities = ResponseSerializationTest.bookings(false);
+        List<BookingResponse> responses = entities.stream().map(BookingResponse::from).toList();
+
+        ObjectMapper plain = new ObjectMapper().registerModule(new JavaTimeModule());
+        ObjectMapper blackbird = new ObjectMapper().registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule());
+
+        // the second round is reported, so no variant runs before the JIT has settled for all of them
+        Result entity = null;
+        Result response = null;
+        Result responseBlackbird = null;
+        for (int round = 0; round < 2; round++) {
+            entity = measure(plain, entities);
+            response = measure(plain, responses);
+            responseBlackbird = measure(blackbird, responses);
+        }
+
+        System.out.printf("%d bookings per response%n", entities.size());
+        System.out.printf("entities:              %,9d bytes %,7d us CPU%n", entity.bytes(), entity.cpuMicros());
+        System.out.printf("responses:             %,9d bytes %,7d us CPU%n", response.bytes(), response.cpuMicros());
+        System.out.printf("responses + Blackbird: %,9d bytes %,7d us CPU%n",
+                responseBlackbird.bytes(), responseBlackbird.cpuMicros());
+
+        assertThat(responseBlackbird.bytes()).isEqualTo(response.bytes());
+    }
+
+    // CPU time of this thread, so that GC and JIT threads are not counted
+    private static Result measure(ObjectMapper mapper, Object payload) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int bytes = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes = mapper.writeValueAsBytes(payload).length;
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - start;
+        return new Result(bytes, cpuNanos / ROUNDS / 1_000);
+    }
+
+    private record Result(int bytes, long cpuMicros) {}
+}
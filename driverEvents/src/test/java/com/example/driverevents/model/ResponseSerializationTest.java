@@ -0,0 +1,97 @@
+package com.example.driverevents.model;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compares the booking list payload as entities (the previous controller output) against the
+ * response records.
+ */
+class ResponseSerializationTest {
+
+    private static final int BOOKINGS = 500;
+
+    private final ObjectMapper entityMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectMapper responseMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new BlackbirdModule());
+
+    @Test
+    void responsesAreSmallerThanEntities() throws Exception {
+        List<Booking> entities = bookings(false);
+        List<BookingResponse> responses = entities.stream().map(BookingResponse::from).toList();
+
+        int entityBytes = entityMapper.writeValueAsBytes(entities).length;
+        int responseBytes = responseMapper.writeValueAsBytes(responses).length;
+
+        assertThat(responseBytes).isLessThan(entityBytes);
+    }
+
+    @Test
+    void entityGraphWithBothLinksCannotBeSerialized() {
+        List<Booking> entities = bookings(true);
+
+        assertThatThrownBy(() -> entityMapper.writeValueAsBytes(entities))
+                .isInstanceOf(JsonMappingException.class);
+        assertThat(entities.stream().map(BookingResponse::from).toList())
+                .allSatisfy(r -> assertThat(r.driver().id()).isNotNull());
+    }
+
+    static List<Booking> bookings(boolean linkVehicleToDriver) {
+        List<Booking> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId((long) i);
+            vehicle.setRegistrationNumber("CA" + (1000 + i) + "AB");
+            vehicle.setBrand("Mercedes");
+            vehicle.setModel("Vito");
+            vehicle.setColor("Black");
+            vehicle.setCapacity(8);
+            vehicle.setDescription("Minivan");
+
+            Driver driver = new Driver();
+            driver.setId((long) i);
+            driver.setName("Driver " + i);
+            driver.setEmail("driver" + i + "@example.com");
+            driver.setPhoneNumber("+35988800" + i);
+            driver.setToken("a".repeat(64));
+            driver.setTokenExpiry(LocalDateTime.of(2026, 1, 1, 0, 0));
+            driver.setVehicles(vehicle);
+            if (linkVehicleToDriver) {
+                vehicle.setDriver(driver);
+            }
+
+            Booking booking = new Booking();
+            booking.setId((long) i);
+            booking.setBookingNumber("B-" + i);
+            booking.setBookingDate("01.06.2025");
+            booking.setStartTime(LocalTime.of(9, 30));
+            booking.setStartAt(OffsetDateTime.of(2025, 6, 1, 9, 30, 0, 0, ZoneOffset.ofHours(3)));
+            booking.setStartLocation("SOF");
+            booking.setDestination("BANSKO");
+            booking.setArrivalOrDeparture("ARRIVAL");
+            booking.setPRVorShuttle("PRV");
+            booking.setCreatedAt(LocalDateTime.of(2025, 5, 20, 12, 0));
+            booking.setUpdatedAt(LocalDateTime.of(2025, 5, 20, 12, 0));
+            booking.setDriver(driver);
+            booking.setDriverName(driver.getName());
+            booking.setVehicle(vehicle);
+            booking.setVehicleNumber(vehicle.getRegistrationNumber());
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+}
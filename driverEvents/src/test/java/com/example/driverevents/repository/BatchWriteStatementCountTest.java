@@ -0,0 +1,106 @@
+package com.example.driverevents.repository;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.LocationUpdateToDb;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts and updates on the sequence-backed tables must leave as JDBC batches of
+ * {@code hibernate.jdbc.batch_size} (application.properties) rather than one statement per row.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BatchWriteStatementCountTest {
+
+    private static final int ROWS = 120;
+    private static final int BATCH_SIZE = 50;
+    // ceil(120 / 50) batches
+    private static final int BATCHES = 3;
+    // one nextval per block of 50 ids, plus one extra on a fresh pooled sequence
+    private static final int SEQUENCE_CALLS = BATCHES + 1;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SentLocationsToExternalApiRepository sentLocationsRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void forwardedLocationsAreInsertedInBatches() {
+        List<LocationUpdateToDb> updates = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            LocationUpdateToDb update = new LocationUpdateToDb();
+            update.setLatitude(42.69 + i / 1000.0);
+            update.setLongitude(23.32);
+            update.setTimestamp(OffsetDateTime.parse("2025-06-01T09:00:00Z").plusSeconds(i * 5L));
+            update.setBookingId(1L);
+            update.setBookingNumber("B-1");
+            updates.add(update);
+        }
+
+        sentLocationsRepository.saveAll(updates);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(BATCHES + SEQUENCE_CALLS);
+    }
+
+    @Test
+    void importedBookingsAreInsertedAndUpdatedInBatches() {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            bookings.add(booking("B-" + i));
+        }
+
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(BATCHES + SEQUENCE_CALLS);
+
+        // sync results: every booking flips syncedWithApi in the same flush
+        statistics.clear();
+        bookings.forEach(b -> b.setSyncedWithApi(true));
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo((ROWS + BATCH_SIZE - 1) / BATCH_SIZE);
+    }
+
+    private static Booking booking(String number) {
+        Booking booking = new Booking();
+        booking.setBookingNumber(number);
+        booking.setBookingDate("01.06.2025");
+        booking.setStartTime(LocalTime.of(9, 0));
+        booking.setStartLocation("SOF");
+        booking.setDestination("BANSKO");
+        booking.setArrivalOrDeparture("ARRIVAL");
+        booking.setPRVorShuttle("PRV");
+        return booking;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.driverevents.repository;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.BookingSort;
+import com.example.driverevents.model.BookingSummary;
+import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.Vehicle;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each read path behind an endpoint must cost exactly one statement, including the associations
+ * the caller goes on to use.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class FetchPlanStatementCountTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2025, 6, 1, 9, 0, 0, 0, ZoneOffset.ofHours(3));
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private DriverRepository driverRepository;
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private Statistics statistics;
+    private Driver firstDriver;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        firstDriver = persistDriverWithVehicle("Ivan Petrov", "ivan@example.com", "CA1234AB");
+        Driver second = persistDriverWithVehicle("Maria Ivanova", "maria@example.com", "CB5678CD");
+
+        bookingIds = List.of(
+                persistBooking("B-1", firstDriver, START).getId(),
+                persistBooking("B-2", second, START.plusHours(1)).getId(),
+                persistBooking("B-3", firstDriver, START.plusHours(2)).getId());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void bookingListIsOneProjectionQuery() {
+        List<BookingSummary> page = bookingRepository.findPage(null, BookingSort.START_AT, false, null, 50);
+
+        assertThat(page).hasSize(3);
+        assertThat(page.get(0).driver().email()).isEqualTo("ivan@example.com");
+        assertThat(page.get(0).vehicle().registrationNumber()).isEqualTo("CA1234AB");
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    @Test
+    void bookingDetailLoadsDriverAndVehicleInOneQuery() {
+        Booking booking = bookingRepository.findById(bookingIds.get(0)).orElseThrow();
+
+        assertThat(booking.getDriver().getPhoneNumber()).isNotBlank();
+        assertThat(booking.getVehicle().getBrand()).isNotBlank();
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkSyncLoadsAllBookingsInOneQuery() {
+        List<Booking> bookings = bookingRepository.findAllById(bookingIds);
+
+        assertThat(bookings).hasSize(3)
+                .allSatisfy(b -> {
+                    assertThat(Hibernate.isInitialized(b.getDriver())).isTrue();
+                    assertThat(Hibernate.isInitialized(b.getVehicle())).isTrue();
+                });
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    @Test
+    void locationForwardingLookupIsOneQuery() {
+        List<Booking> active = bookingRepository.findActiveBookingsForDriver(firstDriver.getId(),
+                START.minusHours(1), START.plusHours(3), START);
+
+        assertThat(active).hasSize(2)
+                .allSatisfy(b -> assertThat(b.getVehicle().getRegistrationNumber()).isEqualTo("CA1234AB"));
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    @Test
+    void driverListLoadsVehiclesInOneQuery() {
+        List<Driver> drivers = driverRepository.findAll();
+
+        assertThat(drivers).hasSize(2)
+                .allSatisfy(d -> assertThat(d.getVehicles().getRegistrationNumber()).isNotBlank());
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    @Test
+    void vehicleListLoadsDriversInOneQuery() {
+        List<Vehicle> vehicles = vehicleRepository.findAll();
+
+        assertThat(vehicles).hasSize(2)
+                .allSatisfy(v -> assertThat(v.getDriver().getName()).isNotBlank());
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    @Test
+    void plainBookingLoadNoLongerCascades() {
+        Booking booking = entityManager.find(Booking.class, bookingIds.get(0));
+
+        assertThat(Hibernate.isInitialized(booking.getDriver())).isFalse();
+        assertThat(Hibernate.isInitialized(booking.getVehicle())).isFalse();
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    private long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Driver persistDriverWithVehicle(String name, String email, String registration) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setRegistrationNumber(registration);
+        vehicle.setModel("Vito");
+        vehicle.setBrand("Mercedes");
+        vehicle.setColor("Black");
+        vehicle.setCapacity(8);
+        entityManager.persist(vehicle);
+
+        Driver driver = new Driver();
+        driver.setName(name);
+        driver.setEmail(email);
+        driver.setPhoneNumber("+359888000000");
+        driver.setVehicles(vehicle);
+        entityManager.persist(driver);
+
+        vehicle.setDriver(driver);
+        return driver;
+    }
+
+    private Booking persistBooking(String number, Driver driver, OffsetDateTime startAt) {
+        Booking booking = new Booking();
+        booking.setBookingNumber(number);
+        booking.setBookingDate("01.06.2025");
+        booking.setStartTime(LocalTime.from(startAt));
+        booking.setStartAt(startAt);
+        booking.setEndAt(startAt.plusHours(1));
+        booking.setStartLocation("SOF");
+        booking.setDestination("BANSKO");
+        booking.setArrivalOrDeparture("ARRIVAL");
+        booking.setPRVorShuttle("PRV");
+        booking.setDriver(driver);
+        booking.setDriverName(driver.getName());
+        booking.setVehicle(driver.getVehicles());
+        booking.setVehicleNumber(driver.getVehicles().getRegistrationNumber());
+        entityManager.persist(booking);
+        return booking;
+    }
+}
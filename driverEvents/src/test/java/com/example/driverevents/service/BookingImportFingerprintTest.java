@@ -0,0 +1,65 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Row fingerprints that decide whether a re-imported booking is written again.
+ */
+class BookingImportFingerprintTest {
+
+    @Test
+    void sameRowGivesSameFingerprint() {
+        assertThat(BookingImportService.fingerprint(booking()))
+                .isEqualTo(BookingImportService.fingerprint(booking()))
+                .hasSize(64);
+    }
+
+    @Test
+    void anyImportedFieldChangesTheFingerprint() {
+        String original = BookingImportService.fingerprint(booking());
+
+        Booking moved = booking();
+        moved.setStartTime(LocalTime.of(9, 45));
+        Booking annotated = booking();
+        annotated.setNotes("2 child seats");
+
+        assertThat(BookingImportService.fingerprint(moved)).isNotEqualTo(original);
+        assertThat(BookingImportService.fingerprint(annotated)).isNotEqualTo(original);
+    }
+
+    @Test
+    void emptyAndMissingValuesDiffer() {
+        Booking empty = booking();
+        empty.setNotes("");
+        Booking missing = booking();
+        missing.setNotes(null);
+
+        assertThat(BookingImportService.fingerprint(empty)).isNotEqualTo(BookingImportService.fingerprint(missing));
+    }
+
+    @Test
+    void syncStateIsNotPartOfTheFingerprint() {
+        Booking synced = booking();
+        synced.setSyncedWithApi(true);
+
+        assertThat(BookingImportService.fingerprint(synced)).isEqualTo(BookingImportService.fingerprint(booking()));
+    }
+
+    private static Booking booking() {
+        Booking b = new Booking();
+        b.setBookingNumber("BK-1001");
+        b.setBookingDate("04.05.2026");
+        b.setStartTime(LocalTime.of(9, 30));
+        b.setStartLocation("SOF AIRPORT");
+        b.setDestination("BANSKO");
+        b.setArrivalOrDeparture("ARRIVAL");
+        b.setPRVorShuttle("PRV");
+        b.setDriverName("ivan petrov");
+        return b;
+    }
+}
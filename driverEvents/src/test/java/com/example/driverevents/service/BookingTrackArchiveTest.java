@@ -0,0 +1,95 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.TrackPoint;
+import com.example.driverevents.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Moving a closed booking's points from location_updates into its archive file.
+ */
+class BookingTrackArchiveTest {
+
+    private static final long BOOKING_ID = 1042L;
+    private static final Instant START = Instant.parse("2026-05-04T06:30:00Z");
+
+    @TempDir
+    Path dir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final TrackSummaryService trackSummaryService = mock(TrackSummaryService.class);
+
+    BookingTrackArchiveTest() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void archivesRowsAndRemovesThemFromTheDatabase() throws Exception {
+        TrackArchiveService archive = new TrackArchiveService(dir.toString());
+        List<TrackPoint> rows = List.of(point(0), point(10), point(20));
+        rows(rows);
+
+        service(archive).archive(BOOKING_ID);
+
+        assertThat(archive.read(BOOKING_ID)).hasValueSatisfying(read -> assertThat(read).hasSize(3));
+        verify(trackSummaryService).rollUpBooking(BOOKING_ID);
+        verify(jdbcTemplate).update("DELETE FROM location_updates WHERE booking_id = ? AND timestamp <= ?",
+                BOOKING_ID, OffsetDateTime.ofInstant(START.plusSeconds(20), ZoneOffset.UTC));
+    }
+
+    @Test
+    void lateRowsAreAppendedToTheExistingArchive() throws Exception {
+        TrackArchiveService archive = new TrackArchiveService(dir.toString());
+        archive.write(BOOKING_ID, List.of(point(0), point(10)));
+        // an interrupted earlier run left point 10 in both places
+        rows(List.of(point(10), point(30)));
+
+        service(archive).archive(BOOKING_ID);
+
+        assertThat(archive.read(BOOKING_ID)).hasValueSatisfying(read -> assertThat(read)
+                .extracting(TrackPoint::timestamp)
+                .containsExactly(START, START.plusSeconds(10), START.plusSeconds(30)));
+        // the summary was built from the full track on the first run
+        verify(trackSummaryService, never()).rollUpBooking(BOOKING_ID);
+        verify(jdbcTemplate).update("DELETE FROM location_updates WHERE booking_id = ? AND timestamp <= ?",
+                BOOKING_ID, OffsetDateTime.ofInstant(START.plusSeconds(30), ZoneOffset.UTC));
+    }
+
+    private BookingTrackService service(TrackArchiveService archive) {
+        return new BookingTrackService(jdbcTemplate, mock(BookingRepository.class), transactionTemplate,
+                archive, trackSummaryService, 3, 500);
+    }
+
+    private void rows(List<TrackPoint> points) {
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<TrackPoint>>any(), eq(BOOKING_ID))).thenReturn(points);
+    }
+
+    private static TrackPoint point(int seconds) {
+        return new TrackPoint(START.plusSeconds(seconds), 42.6977 + seconds * 0.0001, 23.3219);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.BookingTrack;
+import com.example.driverevents.model.TrackPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Track reduction and encoding for GET /api/bookings/{id}/track.
+ */
+class BookingTrackDownsampleTest {
+
+    private static final Instant START = Instant.parse("2026-05-04T06:30:00Z");
+
+    @Test
+    void keepsEndpointsAndCornersOfAThreeHourTrip() {
+        // 3 h at one point per second: east along a straight road, then a right-angle turn north
+        List<TrackPoint> track = new ArrayList<>();
+        for (int i = 0; i < 10_800; i++) {
+            double east = Math.min(i, 5_400) * 0.00001;
+            double north = Math.max(0, i - 5_400) * 0.00001;
+            track.add(new TrackPoint(START.plusSeconds(i), 42.6 + north, 23.3 + east));
+        }
+
+        List<TrackPoint> sampled = BookingTrackService.downsample(track, 100);
+
+        assertThat(sampled).hasSize(100);
+        assertThat(sampled.get(0)).isEqualTo(track.get(0));
+        assertThat(sampled.get(99)).isEqualTo(track.get(track.size() - 1));
+        assertThat(sampled).contains(track.get(5_400));
+        assertThat(sampled).isSortedAccordingTo((a, b) -> a.timestamp().compareTo(b.timestamp()));
+    }
+
+    @Test
+    void shortTracksAreReturnedUnchanged() {
+        List<TrackPoint> track = List.of(
+                new TrackPoint(START, 42.6, 23.3),
+                new TrackPoint(START.plusSeconds(5), 42.61, 23.31));
+
+        assertThat(BookingTrackService.downsample(track, 500)).isSameAs(track);
+    }
+
+    @Test
+    void encodesPolylineAndTimeOffsets() {
+        List<TrackPoint> track = List.of(
+                new TrackPoint(START, 38.5, -120.2),
+                new TrackPoint(START.plusSeconds(30), 40.7, -120.95),
+                new TrackPoint(START.plusSeconds(95), 43.252, -126.453));
+
+        BookingTrack encoded = BookingTrack.of(7L, 3, track);
+
+        // reference example of the encoded polyline format
+        assertThat(encoded.polyline()).isEqualTo("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+        assertThat(encoded.offsets()).containsExactly(0, 30, 95);
+        assertThat(encoded.endedAt()).isEqualTo(START.plusSeconds(95));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.driverevents.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Segmenting and parsing of CSV uploads: records with quoted delimiters, quotes and line breaks must come
+ * out the same however the file is cut.
+ */
+class CsvChunkReaderTest {
+
+    private static final int RECORDS = 20_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parallelSegmentsReadLikeOneSegment() throws Exception {
+        List<List<String>> expected = new ArrayList<>();
+        StringBuilder csv = new StringBuilder("\uFEFFBooking Number,From,Notes\r\n");
+        expected.add(List.of("Booking Number", "From", "Notes"));
+        for (int i = 0; i < RECORDS; i++) {
+            // every third record has a line break inside quotes, so many cut points land inside a field
+            String notes = switch (i % 3) {
+                case 0 -> "pick up at gate " + i;
+                case 1 -> "two lines\nline \"" + i + "\"";
+                default -> "a, b; c";
+            };
+            csv.append("BK-").append(i).append(",SOF AIRPORT,").append(quote(notes)).append("\r\n");
+            if (i % 1000 == 0) {
+                csv.append("\r\n");
+            }
+            expected.add(List.of("BK-" + i, "SOF AIRPORT", notes));
+        }
+        Path file = dir.resolve("bookings.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        List<List<String>> single = readAll(file, 1);
+        List<List<String>> parallel = readAll(file, 64);
+
+        assertThat(single).isEqualTo(expected);
+        assertThat(parallel).isEqualTo(expected);
+    }
+
+    @Test
+    void semicolonSeparatedWithoutTrailingNewline() throws Exception {
+        Path file = dir.resolve("bookings-bg.csv");
+        Files.writeString(file, "Booking Number;Driver\nBK-1;иван петров\nBK-2;", StandardCharsets.UTF_8);
+
+        assertThat(readAll(file, 4)).containsExactly(
+                List.of("Booking Number", "Driver"),
+                List.of("BK-1", "иван петров"),
+                List.of("BK-2", ""));
+    }
+
+    private static List<List<String>> readAll(Path file, int segments) throws Exception {
+        List<List<String>> records = new ArrayList<>();
+        List<Integer> numbers = new ArrayList<>();
+        CsvChunkReader.read(file, segments, (recordNum, fields) -> {
+            numbers.add(recordNum);
+            records.add(fields);
+        });
+        for (int i = 0; i < numbers.size(); i++) {
+            assertThat(numbers.get(i)).isEqualTo(i);
+        }
+        return records;
+    }
+
+    private static String quote(String value) {
+        return value.contains(",") || value.contains("\"") || value.contains("\n")
+                ? '"' + value.replace("\"", "\"\"") + '"'
+                : value;
+    }
+}
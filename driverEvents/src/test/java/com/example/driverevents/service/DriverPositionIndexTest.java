@@ -0,0 +1,113 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.NearbyDriver;
+import com.example.driverevents.model.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Grid answers against a brute-force scan over the same drivers.
+ */
+class DriverPositionIndexTest {
+
+    private static final int DRIVERS = 20_000;
+    private static final double SOFIA_LAT = 42.6977;
+    private static final double SOFIA_LNG = 23.3219;
+
+    private final DriverPositionIndex index = new DriverPositionIndex(15);
+    private final List<NearbyDriver> all = new ArrayList<>();
+
+    @Test
+    void nearestMatchesBruteForce() {
+        populate();
+        Random random = new Random(7);
+        for (int q = 0; q < 1_000; q++) {
+            double lat = SOFIA_LAT + (random.nextDouble() - 0.5) * 1.5;
+            double lng = SOFIA_LNG + (random.nextDouble() - 0.5) * 2;
+            Integer minCapacity = q % 2 == 0 ? null : 6;
+
+            List<NearbyDriver> found = index.nearest(lat, lng, 10, 30_000, Driver.DriverStatus.AVAILABLE, minCapacity);
+            assertThat(found).extracting(NearbyDriver::driverId)
+                    .containsExactlyElementsOf(bruteForce(lat, lng, 10, 30_000, minCapacity));
+        }
+    }
+
+    @Test
+    void movedAndRemovedDriversLeaveTheirOldCell() {
+        Driver driver = driver(1L, Driver.DriverStatus.AVAILABLE, 4);
+        LocalDateTime now = LocalDateTime.now(Booking.BOOKING_ZONE);
+        index.update(driver, SOFIA_LAT, SOFIA_LNG, now.minusMinutes(1));
+        index.update(driver, SOFIA_LAT + 0.5, SOFIA_LNG, now);
+
+        assertThat(index.nearest(SOFIA_LAT, SOFIA_LNG, 5, 10_000, null, null)).isEmpty();
+        assertThat(index.nearest(SOFIA_LAT + 0.5, SOFIA_LNG, 5, 10_000, null, null)).hasSize(1);
+
+        index.remove(1L);
+        assertThat(index.nearest(SOFIA_LAT + 0.5, SOFIA_LNG, 5, 10_000, null, null)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void stalePositionsAreIgnored() {
+        index.update(driver(1L, Driver.DriverStatus.AVAILABLE, 4), SOFIA_LAT, SOFIA_LNG,
+                LocalDateTime.now(Booking.BOOKING_ZONE).minusHours(1));
+
+        assertThat(index.nearest(SOFIA_LAT, SOFIA_LNG, 5, 10_000, null, null)).isEmpty();
+        index.sweep();
+        assertThat(index.size()).isZero();
+    }
+
+    private void populate() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now(Booking.BOOKING_ZONE);
+        Driver.DriverStatus[] statuses = Driver.DriverStatus.values();
+        for (long id = 1; id <= DRIVERS; id++) {
+            Driver driver = driver(id, statuses[random.nextInt(statuses.length)],
+                    random.nextInt(5) == 0 ? null : 2 + random.nextInt(8));
+            double lat = SOFIA_LAT + random.nextGaussian() * 0.3;
+            double lng = SOFIA_LNG + random.nextGaussian() * 0.4;
+            index.update(driver, lat, lng, now);
+            Vehicle v = driver.getVehicles();
+            all.add(new NearbyDriver(id, null, null, driver.getStatus(), null, null,
+                    v == null ? null : v.getCapacity(), lat, lng, now, 0));
+        }
+    }
+
+    private List<Long> bruteForce(double lat, double lng, int limit, double radius, Integer minCapacity) {
+        return all.stream()
+                .filter(d -> d.status() == Driver.DriverStatus.AVAILABLE)
+                .filter(d -> minCapacity == null || (d.capacity() != null && d.capacity() >= minCapacity))
+                .map(d -> new Object[]{d.driverId(),
+                        DriverPositionIndex.distanceMeters(lat, lng, d.latitude(), d.longitude())})
+                .filter(d -> (double) d[1] <= radius)
+                .sorted(Comparator.comparingDouble(d -> (double) d[1]))
+                .limit(limit)
+                .map(d -> (Long) d[0])
+                .toList();
+    }
+
+    private static Driver driver(Long id, Driver.DriverStatus status, Integer capacity) {
+        Driver driver = new Driver();
+        driver.setId(id);
+        driver.setName("Driver " + id);
+        driver.setEmail("driver" + id + "@example.com");
+        driver.setStatus(status);
+        if (capacity != null) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(id);
+            vehicle.setRegistrationNumber("CB" + id);
+            vehicle.setCapacity(capacity);
+            driver.setVehicles(vehicle);
+        }
+        return driver;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.repository.DriverRepository;
+import jakarta.validation.Validation;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Wall time and heap retained while reading the 20k-row sheet of {@link FileProcessingServiceTest}: the
+ * previous DOM read of an upload ({@code XSSFWorkbook}) against the streaming import. Run with
+ * {@code mvn test -Pbenchmark}; results are printed, not asserted.
+ */
+@Tag("benchmark")
+class FileProcessingBenchmarkTest {
+
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void workbookAgainstStreamingImport() throws Exception {
+        Path sheet = FileProcessingServiceTest.writeSheet(dir.resolve("bookings.xlsx"));
+
+        // timed rounds first; the heap rounds force GCs, which would distort the times
+        long workbookMillis = Long.MAX_VALUE;
+        long streamingMillis = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            readWorkbook(sheet, null);
+            workbookMillis = Math.min(workbookMillis, (System.nanoTime() - start) / 1_000_000);
+
+            start = System.nanoTime();
+            importStreaming(sheet, null);
+            streamingMillis = Math.min(streamingMillis, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        long[] workbookRetained = {0};
+        int rows = readWorkbook(sheet, workbookRetained);
+        long[] streamingRetained = {0};
+        ImportResult imported = importStreaming(sheet, streamingRetained);
+
+        System.out.printf("%,d rows, best of %d%n", rows - 1, ROUNDS);
+        System.out.printf("workbook:  %,6d ms %,9d KB retained%n", workbookMillis, workbookRetained[0] / 1024);
+        System.out.printf("streaming: %,6d ms %,9d KB retained%n", streamingMillis, streamingRetained[0] / 1024);
+
+        assertThat(imported.created()).isEqualTo(rows - 1);
+    }
+
+    // the previous upload path: the whole sheet as a DOM, every cell formatted
+    private static int readWorkbook(Path sheet, long[] retained) throws Exception {
+        long baseline = retained == null ? 0 : usedHeap();
+        DataFormatter formatter = new DataFormatter();
+        int rows = 0;
+        try (Workbook workbook = new XSSFWorkbook(sheet.toFile())) {
+            for (Row row : workbook.getSheetAt(0)) {
+                row.forEach(formatter::formatCellValue);
+                rows++;
+            }
+            if (retained != null) {
+                retained[0] = usedHeap() - baseline;
+            }
+        }
+        return rows;
+    }
+
+    // peak heap is sampled at every chunk hand-off, while the reader is mid-sheet
+    private static ImportResult importStreaming(Path sheet, long[] retained) throws Exception {
+        BookingImportService importService = mock(BookingImportService.class);
+        DriverRepository driverRepository = mock(DriverRepository.class);
+        when(driverRepository.findByLowerNameIn(anyCollection())).thenReturn(List.of());
+        long baseline = retained == null ? 0 : usedHeap();
+        when(importService.upsert(anyList())).thenAnswer(invocation -> {
+            List<BookingImportService.ImportRow> chunk = invocation.getArgument(0);
+            if (retained != null) {
+                retained[0] = Math.max(retained[0], usedHeap() - baseline);
+            }
+            return new ImportResult(chunk.size(), 0, 0, List.of());
+        });
+        FileProcessingService service = new FileProcessingService(importService, driverRepository,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        return service.processExcelFile(sheet, new FileProcessingService.ImportProgress() {
+            @Override
+            public void rowsParsed(int rows) {
+            }
+
+            @Override
+            public void chunkWritten(ImportResult chunk) {
+            }
+        });
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
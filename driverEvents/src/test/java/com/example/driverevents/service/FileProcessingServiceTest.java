@@ -0,0 +1,113 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.repository.DriverRepository;
+import jakarta.validation.Validation;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Streaming import of a large sheet: every row arrives, in chunks, with time cells and "HH:mm" text
+ * parsed alike.
+ */
+class FileProcessingServiceTest {
+
+    private static final int ROWS = 20_000;
+    private static final String[] HEADERS =
+            {"Booking Number", "From", "Destination", "Type", "Transp", "Date", "Start Time", "Driver"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void streamingImportReadsEveryRowInChunks() throws Exception {
+        Path sheet = writeSheet(dir.resolve("bookings.xlsx"));
+
+        BookingImportService importService = mock(BookingImportService.class);
+        DriverRepository driverRepository = mock(DriverRepository.class);
+        when(driverRepository.findByLowerNameIn(anyCollection())).thenReturn(List.of());
+        List<Booking> firstChunk = new ArrayList<>();
+        when(importService.upsert(anyList())).thenAnswer(invocation -> {
+            List<BookingImportService.ImportRow> chunk = invocation.getArgument(0);
+            if (firstChunk.isEmpty()) {
+                chunk.forEach(r -> firstChunk.add(r.booking()));
+            }
+            return new ImportResult(chunk.size(), 0, 0, List.of());
+        });
+        FileProcessingService service = new FileProcessingService(importService, driverRepository,
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        List<ImportResult> chunks = new ArrayList<>();
+        ImportResult imported = service.processExcelFile(sheet, new FileProcessingService.ImportProgress() {
+            @Override
+            public void rowsParsed(int rows) {
+            }
+
+            @Override
+            public void chunkWritten(ImportResult chunk) {
+                chunks.add(chunk);
+            }
+        });
+
+        assertThat(imported.created()).isEqualTo(ROWS);
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.errors()).isEmpty());
+        assertThat(firstChunk.get(0).getBookingNumber()).isEqualTo("BK000000");
+        assertThat(firstChunk.get(0).getStartTime()).isEqualTo(LocalTime.of(6, 0));
+        assertThat(firstChunk.get(1).getStartTime()).isEqualTo(LocalTime.of(6, 1));
+        assertThat(firstChunk.get(1).getBookingDate()).isEqualTo("04.05.2026");
+    }
+
+    // Shared strings like an Excel-saved file; start times alternate between time cells and "HH:mm" text
+    static Path writeSheet(Path file) throws Exception {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(new XSSFWorkbook(), 100, true, true)) {
+            CellStyle timeStyle = workbook.createCellStyle();
+            timeStyle.setDataFormat(workbook.createDataFormat().getFormat("hh:mm"));
+            Sheet sheet = workbook.createSheet("Bookings");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADERS.length; c++) {
+                header.createCell(c).setCellValue(HEADERS[c]);
+            }
+            for (int i = 0; i < ROWS; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue("BK%06d".formatted(i));
+                row.createCell(1).setCellValue(i % 3 == 0 ? "Sofia Airport" : "Sofia Center");
+                row.createCell(2).setCellValue(i % 2 == 0 ? "Bansko" : "Borovets");
+                row.createCell(3).setCellValue(i % 2 == 0 ? "Arrival" : "Departure");
+                row.createCell(4).setCellValue(i % 5 == 0 ? "Shuttle" : "PRV");
+                row.createCell(5).setCellValue("04.05.2026");
+                LocalTime time = LocalTime.of(6, 0).plusMinutes(i % 900);
+                if (i % 2 == 0) {
+                    row.createCell(6).setCellValue(time.toSecondOfDay() / 86_400d);
+                    row.getCell(6).setCellStyle(timeStyle);
+                } else {
+                    row.createCell(6).setCellValue(time.toString());
+                }
+                row.createCell(7).setCellValue("Driver " + (i % 40));
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+        return file;
+    }
+}
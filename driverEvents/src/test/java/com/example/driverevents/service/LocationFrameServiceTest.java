@@ -0,0 +1,107 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.LocationFrame;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Frame contents across ticks: a key frame first, then only the drivers that moved or went stale.
+ */
+class LocationFrameServiceTest {
+
+    private final SimpMessagingTemplate websocket = mock(SimpMessagingTemplate.class);
+    private final LocationSubscriptionRegistry subscriptions = new LocationSubscriptionRegistry();
+    private final LocationFrameService frames = new LocationFrameService(websocket, subscriptions, 3600, 15);
+
+    @Test
+    void nothingIsSentWithoutSubscribers() {
+        frames.update(1, 42.69770, 23.32190, LocalDateTime.now(Booking.BOOKING_ZONE));
+        frames.tick();
+
+        verify(websocket, never()).convertAndSend(any(String.class), any(Object.class));
+    }
+
+    @Test
+    void keyFrameThenMovedDriversOnly() {
+        subscribe();
+        LocalDateTime now = LocalDateTime.now(Booking.BOOKING_ZONE);
+        frames.update(1, 42.69770, 23.32190, now);
+        frames.update(2, 42.14664, 24.71683, now);
+
+        frames.tick();
+        // driver 2 reports the same spot again, driver 1 moves
+        frames.update(2, 42.14664, 24.71683, now.plusSeconds(5));
+        frames.update(1, 42.69800, 23.32250, now.plusSeconds(5));
+        frames.tick();
+        frames.tick();
+
+        ArgumentCaptor<LocationFrame> sent = ArgumentCaptor.forClass(LocationFrame.class);
+        verify(websocket, times(2)).convertAndSend(eq(LocationFrameService.FRAMES_TOPIC), sent.capture());
+        List<LocationFrame> all = sent.getAllValues();
+
+        LocationFrame key = all.get(0);
+        assertThat(key.k()).isTrue();
+        assertThat(key.d()).hasNumberOfRows(2);
+
+        LocationFrame delta = all.get(1);
+        assertThat(delta.k()).isFalse();
+        assertThat(delta.s()).isGreaterThan(key.s());
+        assertThat(delta.d()).hasDimensions(1, 4);
+        assertThat(delta.d()[0][0]).isEqualTo(1);
+        assertThat(delta.d()[0][1]).isEqualTo(4269800);
+        assertThat(delta.d()[0][2]).isEqualTo(2332250);
+        assertThat(delta.r()).isEmpty();
+    }
+
+    @Test
+    void staleDriversAreDroppedAndReportedRemoved() {
+        subscribe();
+        LocalDateTime now = LocalDateTime.now(Booking.BOOKING_ZONE);
+        frames.update(1, 42.69770, 23.32190, now);
+        frames.update(2, 42.14664, 24.71683, now.minusMinutes(20));
+
+        frames.tick();
+        frames.update(3, 43.20405, 27.91049, now.minusMinutes(20));
+        frames.tick();
+
+        ArgumentCaptor<LocationFrame> sent = ArgumentCaptor.forClass(LocationFrame.class);
+        verify(websocket, times(2)).convertAndSend(eq(LocationFrameService.FRAMES_TOPIC), sent.capture());
+        List<LocationFrame> all = sent.getAllValues();
+
+        assertThat(all.get(0).k()).isTrue();
+        assertThat(all.get(0).d()).hasDimensions(1, 4);
+        assertThat(all.get(0).d()[0][0]).isEqualTo(1);
+
+        LocationFrame delta = all.get(1);
+        assertThat(delta.k()).isFalse();
+        assertThat(delta.d()).isEmpty();
+        assertThat(delta.r()).containsExactly(3);
+        assertThat(frames.keyFrame().d()).hasDimensions(1, 4);
+    }
+
+    private void subscribe() {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setSessionId("a");
+        headers.setSubscriptionId("sub-0");
+        headers.setDestination(LocationFrameService.FRAMES_TOPIC);
+        subscriptions.onSubscribe(new SessionSubscribeEvent(this,
+                MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders())));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.driverevents.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Subscription counts as browsers subscribe, unsubscribe and drop their connection.
+ */
+class LocationSubscriptionRegistryTest {
+
+    private final LocationSubscriptionRegistry registry = new LocationSubscriptionRegistry();
+
+    @Test
+    void topicIsLiveWhileAnySessionSubscribes() {
+        String topic = LocationSubscriptionRegistry.driverTopic(7);
+        assertThat(registry.hasSubscribers(topic)).isFalse();
+
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "a", "sub-0", topic)));
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "b", "sub-0", topic)));
+        assertThat(registry.hasSubscribers(topic)).isTrue();
+        assertThat(registry.hasSubscribers(LocationSubscriptionRegistry.driverTopic(8))).isFalse();
+
+        registry.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "a", "sub-0", null)));
+        assertThat(registry.hasSubscribers(topic)).isTrue();
+
+        registry.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, "b", null, null),
+                "b", CloseStatus.NORMAL));
+        assertThat(registry.hasSubscribers(topic)).isFalse();
+    }
+
+    @Test
+    void patternSubscriptionCoversMatchingTopics() {
+        registry.onSubscribe(new SessionSubscribeEvent(this,
+                frame(StompCommand.SUBSCRIBE, "a", "sub-1", "/topic/location/booking/*")));
+
+        assertThat(registry.hasSubscribers(LocationSubscriptionRegistry.bookingTopic(42))).isTrue();
+        assertThat(registry.hasSubscribers(LocationSubscriptionRegistry.driverTopic(42))).isFalse();
+
+        registry.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, "a", null, null),
+                "a", CloseStatus.NORMAL));
+        assertThat(registry.hasSubscribers(LocationSubscriptionRegistry.bookingTopic(42))).isFalse();
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId,
+                                         String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(command);
+        headers.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            headers.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            headers.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.config.CacheConfig;
+import com.example.driverevents.model.Driver;
+import com.example.driverevents.model.DriverSnapshot;
+import com.example.driverevents.model.LiveLocation;
+import com.example.driverevents.service.ReferenceDataListener.ReferenceData;
+import com.example.driverevents.service.ReferenceDataListener.ReferenceDataChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Messages from the channel: other instances' positions and changes are applied, this instance's own are skipped.
+ */
+class PostgresLocationBusTest {
+
+    private static final String CHANNEL = "live_locations";
+
+    private final LiveLocationBroadcaster broadcaster = mock(LiveLocationBroadcaster.class);
+    private final DriverPositionIndex driverPositionIndex = mock(DriverPositionIndex.class);
+    private final ReferenceDataLookupService referenceDataLookupService = mock(ReferenceDataLookupService.class);
+    private final ActiveBookingService activeBookingService = mock(ActiveBookingService.class);
+    private final RouteDurationService routeDurationService = mock(RouteDurationService.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PostgresLocationBus bus = new PostgresLocationBus(broadcaster, driverPositionIndex,
+            referenceDataLookupService, activeBookingService, routeDurationService, cacheManager, jdbcTemplate,
+            objectMapper, new DataSourceProperties(), new MockEnvironment(), CHANNEL);
+
+    private final LiveLocation location = new LiveLocation(7, "driver@example.com", 42.69770, 23.32190,
+            LocalDateTime.of(2025, 6, 1, 10, 15, 30), List.of(11L, 12L));
+
+    @Test
+    void deliversAndIndexesPositionsOfOtherInstances() throws Exception {
+        DriverSnapshot driver = new DriverSnapshot(7L, "Ivan", "driver@example.com", Driver.DriverStatus.AVAILABLE,
+                true, 3L, "CA1234AB", 8);
+        when(referenceDataLookupService.findDriverByEmail("driver@example.com")).thenReturn(driver);
+        String payload = objectMapper.writeValueAsString(PostgresLocationBus.Message.position("other-node", location));
+
+        bus.receive(payload);
+
+        ArgumentCaptor<LiveLocation> delivered = ArgumentCaptor.forClass(LiveLocation.class);
+        verify(broadcaster).deliver(delivered.capture());
+        assertThat(delivered.getValue()).isEqualTo(location);
+        verify(driverPositionIndex).update(driver, 42.69770, 23.32190, location.timestamp());
+    }
+
+    @Test
+    void skipsItsOwnMessages() {
+        bus.publish(location);
+        bus.onBookingChanged(new BookingService.BookingChangedEvent(11L, null));
+        bus.publishChanges();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).query(eq("SELECT pg_notify(?, ?)"),
+                ArgumentMatchers.<ResultSetExtractor<Void>>any(), eq(CHANNEL), payload.capture());
+        payload.getAllValues().forEach(bus::receive);
+
+        verify(broadcaster, never()).deliver(any());
+        verifyNoInteractions(driverPositionIndex, activeBookingService);
+    }
+
+    @Test
+    void appliesChangesOfOtherInstances() throws Exception {
+        cacheManager.getCache(CacheConfig.DRIVERS_BY_EMAIL).put("driver@example.com", "snapshot");
+        cacheManager.getCache(CacheConfig.DESTINATIONS).put("all", List.of());
+
+        bus.receive(objectMapper.writeValueAsString(
+                new PostgresLocationBus.Message("other-node", null, ReferenceData.DRIVERS, null)));
+        bus.receive(objectMapper.writeValueAsString(
+                new PostgresLocationBus.Message("other-node", null, null, List.of(11L, 12L))));
+
+        assertThat(cacheManager.getCache(CacheConfig.DRIVERS_BY_EMAIL).get("driver@example.com")).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.DESTINATIONS).get("all")).isNotNull();
+        verify(activeBookingService).reload(List.of(11L, 12L));
+        verify(routeDurationService, never()).load();
+
+        bus.receive(objectMapper.writeValueAsString(
+                new PostgresLocationBus.Message("other-node", null, ReferenceData.DESTINATIONS, null)));
+
+        assertThat(cacheManager.getCache(CacheConfig.DESTINATIONS).get("all")).isNull();
+        verify(routeDurationService).load();
+    }
+
+    @Test
+    void collectsChangesIntoBatchedMessages() {
+        for (long id = 1; id <= 600; id++) {
+            bus.onBookingChanged(new BookingService.BookingChangedEvent(id, null));
+        }
+        bus.onReferenceDataChanged(new ReferenceDataChangedEvent(ReferenceData.DRIVERS));
+        bus.onReferenceDataChanged(new ReferenceDataChangedEvent(ReferenceData.DRIVERS));
+
+        bus.publishChanges();
+        bus.publishChanges();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).query(eq("SELECT pg_notify(?, ?)"),
+                ArgumentMatchers.<ResultSetExtractor<Void>>any(), eq(CHANNEL), payload.capture());
+        List<PostgresLocationBus.Message> sent = payload.getAllValues().stream().map(this::read).toList();
+        assertThat(sent.get(0).changed()).isEqualTo(ReferenceData.DRIVERS);
+        assertThat(sent.get(1).bookingIds().size() + sent.get(2).bookingIds().size()).isEqualTo(600);
+    }
+
+    @Test
+    void ignoresUnreadableMessages() {
+        bus.receive("{not json");
+
+        verify(broadcaster, never()).deliver(any());
+    }
+
+    private PostgresLocationBus.Message read(String payload) {
+        try {
+            return objectMapper.readValue(payload, PostgresLocationBus.Message.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.ImportResult;
+import com.example.driverevents.model.ImportRowError;
+import jakarta.validation.Validation;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Row accounting of the reference data import against a mocked database: which rows are created, updated,
+ * skipped or rejected, how natural keys are matched, and the row-by-row retry after a failed batch.
+ */
+class ReferenceDataImportServiceTest {
+
+    private static final String VEHICLE_HEADER = "Reg Num ,Model,Brand,Color,Capacity,Description,Driver ID,Status\n";
+
+    @TempDir
+    Path dir;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final RouteDurationService routeDurationService = mock(RouteDurationService.class);
+    private final BookingScheduleService bookingScheduleService = mock(BookingScheduleService.class);
+    private final ReferenceDataImportService service = new ReferenceDataImportService(jdbcTemplate,
+            transactionTemplate, Validation.buildDefaultValidatorFactory().getValidator(),
+            new ConcurrentMapCacheManager(), routeDurationService, bookingScheduleService,
+            mock(ApplicationEventPublisher.class));
+
+    // rows written per statement, in call order
+    private final List<SqlParameterSource> inserted = new ArrayList<>();
+    private final List<SqlParameterSource> updated = new ArrayList<>();
+
+    ReferenceDataImportServiceTest() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void vehiclesAreCountedAsCreatedUpdatedSkippedOrRejected() throws Exception {
+        existingKeys(Map.of("ca1234ab", 10L, "ca9999aa", 11L));
+        // vehicle 11 already holds the imported values, so its UPDATE matches no row
+        batches(params -> !Long.valueOf(11L).equals(params.getValue("id")), null);
+
+        ImportResult result = service.importVehicles(csv("vehicles.csv", VEHICLE_HEADER
+                + " ca1234ab ,Vito,Mercedes,Black,8,,,\n"
+                + "CB5678CD,Sprinter,Mercedes,White,16,,,\n"
+                + "CA9999AA,Transit,Ford,Blue,8,,,\n"
+                + "cb5678cd,Sprinter,Mercedes,Silver,16.0,,,\n"
+                + ",Vito,Mercedes,Black,8,,,\n"
+                + "CA0001XX,Vito,Mercedes,Black,lots,,,\n"), true);
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        // CB5678CD on row 3 is superseded by row 5, CA9999AA is unchanged
+        assertThat(result.skipped()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ImportRowError::row).containsExactly(6, 7);
+        assertThat(result.errors().get(1).message()).contains("lots");
+
+        // the last row per key wins, with the key as written in that row
+        assertThat(inserted).singleElement().satisfies(p -> {
+            assertThat(p.getValue("registration")).isEqualTo("cb5678cd");
+            assertThat(p.getValue("color")).isEqualTo("Silver");
+            assertThat(p.getValue("capacity")).isEqualTo(16);
+        });
+        assertThat(updated).extracting(p -> p.getValue("id")).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void naturalKeysAreLookedUpTrimmedAndCaseFolded() throws Exception {
+        existingKeys(Map.of());
+        batches(params -> true, null);
+
+        service.importVehicles(csv("vehicles.csv", VEHICLE_HEADER
+                + "  CA1234AB,Vito,Mercedes,Black,8,,,\n"
+                + "ca1234ab  ,Vito,Mercedes,Black,8,,,\n"
+                + "Cb5678Cd,Sprinter,Mercedes,White,16,,,\n"), true);
+
+        ArgumentCaptor<SqlParameterSource> lookup = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), lookup.capture(), any(RowCallbackHandler.class));
+        assertThat(lookup.getValue().getValue("keys"))
+                .asInstanceOf(InstanceOfAssertFactories.collection(String.class))
+                .containsExactlyInAnyOrder("ca1234ab", "cb5678cd");
+        assertThat(inserted).hasSize(2);
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRow() throws Exception {
+        existingKeys(Map.of());
+        batches(params -> true, params -> "CB5678CD".equals(params.getValue("registration")));
+
+        ImportResult result = service.importVehicles(csv("vehicles.csv", VEHICLE_HEADER
+                + "CA1234AB,Vito,Mercedes,Black,8,,,\n"
+                + "CB5678CD,Sprinter,Mercedes,White,16,,,\n"
+                + "CA9999AA,Transit,Ford,Blue,8,,,\n"), true);
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.row()).isEqualTo(3);
+            assertThat(error.key()).isEqualTo("CB5678CD");
+            assertThat(error.message()).isEqualTo("duplicate key value");
+        });
+        assertThat(inserted).extracting(p -> p.getValue("registration")).containsExactly("CA1234AB", "CA9999AA");
+    }
+
+    @Test
+    void onlyChangedRoutesRescheduleBookings() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(destination(1L, "Sofia Airport", "Bansko", 150));
+            handler.processRow(destination(2L, "Sofia Airport", "Borovets", 90));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        batches(params -> true, null);
+
+        ImportResult result = service.importDestinations(csv("destinations.csv",
+                "Start Location,End Location,Duration Minutes\n"
+                        + "SOFIA AIRPORT , bansko,150\n"
+                        + "Sofia Airport,Borovets,75\n"
+                        + "Sofia Airport,Pamporovo,210\n"), true);
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.skipped()).isEqualTo(1);
+        verify(routeDurationService).load();
+        verify(bookingScheduleService).onRouteChanged("Sofia Airport", "Borovets");
+        verify(bookingScheduleService).onRouteChanged("Sofia Airport", "Pamporovo");
+        verifyNoMoreInteractions(bookingScheduleService);
+    }
+
+    private Path csv(String name, String content) throws Exception {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    // natural key -> id rows returned by the key lookup
+    private void existingKeys(Map<String, Long> ids) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Map.Entry<String, Long> entry : ids.entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(entry.getValue());
+                when(rs.getString(2)).thenReturn(entry.getKey());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Batched INSERTs and UPDATEs; {@code updateMatches} decides whether an UPDATE changed its row, and a
+     * batch holding a row that {@code insertFails} fails as a whole, like a unique key violation.
+     */
+    private void batches(Predicate<SqlParameterSource> updateMatches, Predicate<SqlParameterSource> insertFails) {
+        doAnswer(invocation -> {
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            if (insertFails != null && Arrays.stream(batch).anyMatch(insertFails)) {
+                throw new DataIntegrityViolationException("duplicate key value");
+            }
+            inserted.addAll(Arrays.asList(batch));
+            int[] counts = new int[batch.length];
+            Arrays.fill(counts, 1);
+            return counts;
+        }).when(jdbcTemplate).batchUpdate(argThat((String sql) -> sql != null && sql.startsWith("INSERT")),
+                any(SqlParameterSource[].class));
+        doAnswer(invocation -> {
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            updated.addAll(Arrays.asList(batch));
+            return Arrays.stream(batch).mapToInt(p -> updateMatches.test(p) ? 1 : 0).toArray();
+        }).when(jdbcTemplate).batchUpdate(argThat((String sql) -> sql != null && sql.startsWith("UPDATE")),
+                any(SqlParameterSource[].class));
+    }
+
+    private static ResultSet destination(long id, String start, String end, int durationMinutes) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getString(2)).thenReturn(start);
+        when(rs.getString(3)).thenReturn(end);
+        when(rs.getObject(4)).thenReturn(durationMinutes);
+        return rs;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.Booking;
+import com.example.driverevents.model.ExportFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cell encoding of the export writers.
+ */
+class TabularWriterTest {
+
+    private static final List<String> HEADER = List.of("Booking Number", "Start Time", "Notes", "Start At", "Synced");
+    private static final OffsetDateTime START = OffsetDateTime.parse("2026-05-04T06:30:00Z");
+
+    @Test
+    void csvQuotesOnlyWhereNeeded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularWriter writer = TabularWriter.open(ExportFormat.CSV, out, "Bookings", HEADER)) {
+            writer.row("BK-1", LocalTime.of(9, 5), "gate 2, \"blue\" sign\nback door", START, true);
+            writer.row("BK-2", null, null, null, false);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\uFEFF"
+                + "Booking Number,Start Time,Notes,Start At,Synced\r\n"
+                + "BK-1,09:05,\"gate 2, \"\"blue\"\" sign\nback door\",2026-05-04 09:30:00,true\r\n"
+                + "BK-2,,,,false\r\n");
+    }
+
+    @Test
+    void csvDefusesFormulasInText() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularWriter writer = TabularWriter.open(ExportFormat.CSV, out, "Bookings", List.of("A", "B", "C", "D"))) {
+            writer.row("=HYPERLINK(\"http://x\",\"y\")", "@SUM(1)", "-1", -23.5);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith(
+                "\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'@SUM(1),'-1,-23.5\r\n");
+    }
+
+    @Test
+    void xlsxKeepsTypesAndShowsBookingZoneTimes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularWriter writer = TabularWriter.open(ExportFormat.XLSX, out, "Bookings", HEADER)) {
+            for (int i = 0; i < 1_000; i++) {
+                writer.row("BK-" + i, LocalTime.of(9, 5), null, START, i % 2 == 0);
+            }
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Bookings");
+            assertThat(sheet.getLastRowNum()).isEqualTo(1_000);
+            Row row = sheet.getRow(1);
+            assertThat(row.getCell(0).getStringCellValue()).isEqualTo("BK-0");
+            assertThat(row.getCell(1).getStringCellValue()).isEqualTo("09:05");
+            assertThat(row.getCell(2)).isNull();
+            assertThat(row.getCell(3).getLocalDateTimeCellValue())
+                    .isEqualTo(START.atZoneSameInstant(Booking.BOOKING_ZONE).toLocalDateTime());
+            assertThat(row.getCell(4).getBooleanCellValue()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.driverevents.service;
+
+import com.example.driverevents.model.TrackPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Round trip of the track archive format, and its size against the row data it replaces
+ * (two doubles and a timestamp per point, before any per-row overhead).
+ */
+class TrackArchiveServiceTest {
+
+    private static final int POINTS = 3_600;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void archivedTrackReadsBackAtFixedPointPrecision() throws Exception {
+        TrackArchiveService archive = new TrackArchiveService(dir.toString());
+        List<TrackPoint> track = track();
+
+        archive.write(1042L, track);
+        List<TrackPoint> read = archive.read(1042L).orElseThrow();
+
+        assertThat(read).hasSize(track.size());
+        for (int i = 0; i < track.size(); i++) {
+            assertThat(read.get(i).timestamp()).isEqualTo(track.get(i).timestamp());
+            assertThat(read.get(i).latitude()).isCloseTo(track.get(i).latitude(), within(1e-6));
+            assertThat(read.get(i).longitude()).isCloseTo(track.get(i).longitude(), within(1e-6));
+        }
+
+        // a sixth of the 24 bytes per point the rows hold
+        assertThat(Files.size(dir.resolve("42").resolve("1042.trk"))).isLessThan(POINTS * 4L);
+    }
+
+    @Test
+    void missingAndDeletedArchivesReadAsEmpty() throws Exception {
+        TrackArchiveService archive = new TrackArchiveService(dir.toString());
+        assertThat(archive.read(7L)).isEmpty();
+
+        archive.write(7L, track());
+        archive.delete(7L);
+
+        assertThat(archive.exists(7L)).isFalse();
+        assertThat(archive.read(7L)).isEmpty();
+    }
+
+    // An hour of points every second around Sofia, drifting like a vehicle in traffic
+    private static List<TrackPoint> track() {
+        List<TrackPoint> points = new ArrayList<>(POINTS);
+        Instant start = Instant.parse("2026-05-04T06:30:00Z");
+        double latitude = 42.697708;
+        double longitude = 23.321868;
+        for (int i = 0; i < POINTS; i++) {
+            latitude += 0.00002 * Math.sin(i / 90.0);
+            longitude += 0.00003 * Math.cos(i / 120.0);
+            points.add(new TrackPoint(start.plusSeconds(i), latitude, longitude));
+        }
+        return points;
+    }
+}
@@ -36,12 +36,12 @@ export default defineConfig({
         port: 5173,
         proxy: {
             '/api': {
-                target: 'http://localhost:8080',    //BE server
+                target: process.env.BACKEND_URL ?? 'http://localhost:8080',    //BE server
                 changeOrigin: true,
                 secure: false,
             },
             '/ws': {
-                target: 'http://localhost:8080',
+                target: process.env.BACKEND_URL ?? 'http://localhost:8080',
                 changeOrigin: true,
                 secure: false,
                 ws: true,